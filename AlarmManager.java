@@ -7,7 +7,18 @@ import java.util.concurrent.*;
  */
 public class AlarmManager {
     private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-    private static final Map<Task, ScheduledFuture<?>> scheduled = new ConcurrentHashMap<>();
+    // Keyed by task id so an alarm stays attached to its task however the object is edited
+    private static final Map<Long, Alarm> scheduled = new ConcurrentHashMap<>();
+
+    private static final class Alarm {
+        final Task task;
+        final ScheduledFuture<?> future;
+
+        Alarm(Task task, ScheduledFuture<?> future) {
+            this.task = task;
+            this.future = future;
+        }
+    }
 
     // Schedule an alarm for the task at the task's due date at given timeOfDay (if null, use start-of-day).
     // repeatMinutes is the default snooze length used when the user selects "snooze to repeat".
@@ -16,7 +27,7 @@ public class AlarmManager {
         long delayMs = computeDelayToDueDateMillis(task, timeOfDay);
         if (delayMs < 0) delayMs = 0; // if due date/time is in the past, trigger immediately
         ScheduledFuture<?> f = scheduler.schedule(() -> triggerAlarm(task, repeatMinutes), delayMs, TimeUnit.MILLISECONDS);
-        scheduled.put(task, f);
+        scheduled.put(task.getId(), new Alarm(task, f));
     }
 
     // Backwards-compatible overload: schedule at start-of-day
@@ -29,17 +40,27 @@ public class AlarmManager {
         cancelAlarm(task);
         long delayMs = Math.max(0, minutesFromNow * 60L * 1000L);
         ScheduledFuture<?> f = scheduler.schedule(() -> triggerAlarm(task, minutesFromNow), delayMs, TimeUnit.MILLISECONDS);
-        scheduled.put(task, f);
+        scheduled.put(task.getId(), new Alarm(task, f));
     }
 
     public static void cancelAlarm(Task task) {
-        ScheduledFuture<?> f = scheduled.remove(task);
-        if (f != null) f.cancel(false);
+        cancelAlarm(task.getId());
+    }
+
+    public static void cancelAlarm(long taskId) {
+        Alarm a = scheduled.remove(taskId);
+        if (a != null) a.future.cancel(false);
+    }
+
+    public static boolean hasAlarm(Task task) {
+        return scheduled.containsKey(task.getId());
     }
 
     // Return a snapshot list of tasks that currently have scheduled alarms
     public static java.util.List<Task> getScheduledTasks() {
-        return new java.util.ArrayList<>(scheduled.keySet());
+        java.util.List<Task> tasks = new java.util.ArrayList<>();
+        for (Alarm a : scheduled.values()) tasks.add(a.task);
+        return tasks;
     }
 
     private static void triggerAlarm(Task task, long repeatMinutes) {
@@ -0,0 +1,150 @@
+/**
+ * AutoCompletePopup.java
+ *
+ * Drop-down of completions under a text field, fed by a prefix lookup.
+ */
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Function;
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+public final class AutoCompletePopup {
+    private static final int MAX_ROWS = 8;
+
+    private final JTextField field;
+    private final Function<String, List<String>> source;
+    private final JPopupMenu popup = new JPopupMenu();
+    private final DefaultListModel<String> model = new DefaultListModel<>();
+    private final JList<String> list = new JList<>(model);
+    // Set while we write a chosen completion into the field, so it does not re-trigger
+    private boolean applying = false;
+
+    private AutoCompletePopup(JTextField field, Function<String, List<String>> source) {
+        this.field = field;
+        this.source = source;
+
+        list.setFocusable(false);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFont(field.getFont());
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setBorder(BorderFactory.createEmptyBorder());
+        popup.setFocusable(false);
+        popup.setBorder(BorderFactory.createLineBorder(ThemeManager.getBorderColor(), 1));
+        popup.add(scroll);
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { scheduleUpdate(); }
+            public void removeUpdate(DocumentEvent e) { scheduleUpdate(); }
+            public void changedUpdate(DocumentEvent e) { scheduleUpdate(); }
+        });
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) return;
+                int i = list.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        select(Math.min(i + 1, model.size() - 1));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        select(Math.max(i - 1, 0));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        // Only swallow the key when a row is highlighted; otherwise let the dialog have it
+                        if (i >= 0) {
+                            accept(list.getSelectedValue());
+                            e.consume();
+                        }
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        popup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+            }
+        });
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int i = list.locationToIndex(e.getPoint());
+                if (i >= 0) accept(model.get(i));
+            }
+        });
+    }
+
+    // Show completions from source (called with the field's text) while the user types
+    public static void install(JTextField field, Function<String, List<String>> source) {
+        new AutoCompletePopup(field, source);
+    }
+
+    private void scheduleUpdate() {
+        if (applying) return;
+        // Document listeners must not touch the field directly, so defer to the next EDT turn
+        SwingUtilities.invokeLater(this::update);
+    }
+
+    private void update() {
+        String text = field.getText();
+        if (text.trim().isEmpty() || !field.isShowing()) {
+            popup.setVisible(false);
+            return;
+        }
+        List<String> completions = source.apply(text);
+        // Nothing to offer if the only completion is what is already typed
+        if (completions.isEmpty() || (completions.size() == 1 && completions.get(0).equals(text))) {
+            popup.setVisible(false);
+            return;
+        }
+        model.clear();
+        for (String c : completions) {
+            model.addElement(c);
+        }
+        list.setVisibleRowCount(Math.min(MAX_ROWS, completions.size()));
+        list.setBackground(ThemeManager.getPanelBackground());
+        list.setForeground(ThemeManager.getTextColor());
+        list.setSelectionBackground(ThemeManager.getHeaderBackground());
+        list.setSelectionForeground(ThemeManager.getTextColor());
+        list.clearSelection();
+        popup.setPopupSize(field.getWidth(), list.getPreferredScrollableViewportSize().height + 4);
+        if (popup.isVisible()) {
+            popup.pack();
+        } else {
+            popup.show(field, 0, field.getHeight());
+        }
+        // Showing the popup can pull focus away on some platforms
+        field.requestFocusInWindow();
+    }
+
+    private void select(int i) {
+        if (i < 0) return;
+        list.setSelectedIndex(i);
+        list.ensureIndexIsVisible(i);
+    }
+
+    private void accept(String value) {
+        applying = true;
+        try {
+            field.setText(value);
+        } finally {
+            applying = false;
+        }
+        popup.setVisible(false);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * CalendarChange.java
+ *
+ * A single change to a calendar's tasks or events, with the dates it touched.
+ */
+import java.time.LocalDate;
+
+public final class CalendarChange {
+    public enum Type {
+        TASK_ADDED, TASK_REMOVED, TASK_EDITED,
+        EVENT_ADDED, EVENT_REMOVED, EVENT_EDITED
+    }
+
+    private final Type type;
+    private final Task task;
+    private final Event event;
+    // Span the item covered before the change (null when it was just added)
+    private final LocalDate oldStart;
+    private final LocalDate oldEnd;
+    // Span the item covers after the change (null when it was removed)
+    private final LocalDate newStart;
+    private final LocalDate newEnd;
+
+    private CalendarChange(Type type, Task task, Event event,
+                           LocalDate oldStart, LocalDate oldEnd, LocalDate newStart, LocalDate newEnd) {
+        this.type = type;
+        this.task = task;
+        this.event = event;
+        this.oldStart = oldStart;
+        this.oldEnd = oldEnd;
+        this.newStart = newStart;
+        this.newEnd = newEnd;
+    }
+
+    static CalendarChange taskAdded(Task task) {
+        return new CalendarChange(Type.TASK_ADDED, task, null, null, null, task.getDueDate(), task.getDueDate());
+    }
+
+    static CalendarChange taskRemoved(Task task, LocalDate dueDate) {
+        return new CalendarChange(Type.TASK_REMOVED, task, null, dueDate, dueDate, null, null);
+    }
+
+    static CalendarChange taskEdited(Task task, LocalDate oldDueDate) {
+        return new CalendarChange(Type.TASK_EDITED, task, null, oldDueDate, oldDueDate, task.getDueDate(), task.getDueDate());
+    }
+
+    static CalendarChange eventAdded(Event event) {
+        return new CalendarChange(Type.EVENT_ADDED, null, event, null, null, event.getStartDate(), event.getEndDate());
+    }
+
+    static CalendarChange eventRemoved(Event event) {
+        return new CalendarChange(Type.EVENT_REMOVED, null, event, event.getStartDate(), event.getEndDate(), null, null);
+    }
+
+    static CalendarChange eventEdited(Event event, LocalDate oldStart, LocalDate oldEnd) {
+        return new CalendarChange(Type.EVENT_EDITED, null, event, oldStart, oldEnd, event.getStartDate(), event.getEndDate());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isTaskChange() {
+        return task != null;
+    }
+
+    public boolean isEventChange() {
+        return event != null;
+    }
+
+    // The task concerned, or null for event changes
+    public Task getTask() {
+        return task;
+    }
+
+    // The event concerned, or null for task changes
+    public Event getEvent() {
+        return event;
+    }
+
+    public LocalDate getOldStart() {
+        return oldStart;
+    }
+
+    public LocalDate getOldEnd() {
+        return oldEnd;
+    }
+
+    public LocalDate getNewStart() {
+        return newStart;
+    }
+
+    public LocalDate getNewEnd() {
+        return newEnd;
+    }
+
+    // True if the change touched the given date, before or after
+    public boolean affects(LocalDate date) {
+        return affects(date, date);
+    }
+
+    // True if the change touched any date in [from, to] (inclusive), before or after
+    public boolean affects(LocalDate from, LocalDate to) {
+        return overlaps(oldStart, oldEnd, from, to) || overlaps(newStart, newEnd, from, to);
+    }
+
+    private static boolean overlaps(LocalDate start, LocalDate end, LocalDate from, LocalDate to) {
+        return start != null && end != null && !start.isAfter(to) && !end.isBefore(from);
+    }
+
+    @Override
+    public String toString() {
+        String name = task != null ? task.getTaskName() : event.getEventName();
+        return type + " " + name + " (" + oldStart + ".." + oldEnd + " -> " + newStart + ".." + newEnd + ")";
+    }
+}
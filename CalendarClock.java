@@ -0,0 +1,123 @@
+/**
+ * CalendarClock.java
+ *
+ * Shared source of "today" that is cached and rolls over at local midnight.
+ */
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * today() is a field read plus one millisecond-counter comparison, instead of a clock and
+ * time-zone lookup per call, so it is cheap inside per-task loops and paint code. When
+ * the date changes every RolloverListener is told once, from a daemon timer set for the
+ * next local midnight (or from whichever thread first notices, if the timer is late).
+ *
+ * Everything reads the default clock unless given another. Tests can install a clock
+ * built on a java.time.Clock they control with setDefault, move that time forward and
+ * call checkRollover() to fire the rollover deterministically.
+ */
+public final class CalendarClock {
+
+    // Listener interface for code that must react once when the date changes
+    public interface RolloverListener {
+        void onDateChanged(LocalDate previous, LocalDate today);
+    }
+
+    private static volatile CalendarClock defaultClock = new CalendarClock(Clock.systemDefaultZone());
+
+    private final Clock clock;
+    private final List<RolloverListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile LocalDate today;
+    // clock.millis() value at which today is no longer current
+    private volatile long nextRolloverMillis;
+    // Started with the first listener; nobody needs waking before that
+    private ScheduledExecutorService timer;
+    private ScheduledFuture<?> pending;
+
+    public CalendarClock(Clock clock) {
+        this.clock = clock;
+        this.today = LocalDate.now(clock);
+        this.nextRolloverMillis = startOfNextDay(today);
+    }
+
+    public static CalendarClock getDefault() {
+        return defaultClock;
+    }
+
+    // Replace the clock used by Task, MyCalendar and the GUIs (tests and simulations)
+    public static void setDefault(CalendarClock clock) {
+        if (clock == null) throw new IllegalArgumentException("Clock cannot be null.");
+        defaultClock = clock;
+    }
+
+    // Today's date on the default clock
+    public static LocalDate today() {
+        return defaultClock.getToday();
+    }
+
+    public LocalDate getToday() {
+        if (clock.millis() >= nextRolloverMillis) checkRollover();
+        return today;
+    }
+
+    /**
+     * Re-read the underlying clock and, if the date changed, notify every listener once.
+     * Tests call it after moving their clock.
+     */
+    public void checkRollover() {
+        check(false);
+    }
+
+    private void check(boolean fromTimer) {
+        LocalDate previous;
+        LocalDate now;
+        synchronized (this) {
+            now = LocalDate.now(clock);
+            previous = today;
+            nextRolloverMillis = startOfNextDay(now);
+            boolean changed = !now.equals(previous);
+            if (changed) today = now;
+            // A timer that fired a little early (drift, clock adjustments) must still be re-armed
+            if (timer != null && (fromTimer || changed)) schedule();
+            if (!changed) return;
+        }
+        for (RolloverListener l : listeners) {
+            l.onDateChanged(previous, now);
+        }
+    }
+
+    public void addRolloverListener(RolloverListener listener) {
+        listeners.add(listener);
+        synchronized (this) {
+            if (timer == null) {
+                timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "calendar-clock");
+                    t.setDaemon(true);
+                    return t;
+                });
+                schedule();
+            }
+        }
+    }
+
+    public void removeRolloverListener(RolloverListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Caller holds the monitor; wake up just after the next midnight
+    private void schedule() {
+        if (pending != null) pending.cancel(false);
+        long delay = Math.max(0, nextRolloverMillis - clock.millis()) + 1000L;
+        pending = timer.schedule(() -> check(true), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private long startOfNextDay(LocalDate date) {
+        return date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+    }
+}
@@ -30,7 +30,8 @@ public class CalendarGUI extends JFrame {
                 applyTheme();
             }
         });
-        SwingUtilities.invokeLater(this::refreshCalendar);
+        // Patch just the affected day cells whenever tasks or events change, while showing
+        UIUtils.listenWhileShowing(this, calendar, this::patchCalendar, this::refreshCalendar);
     }
 
     private void initializeFrame() {
@@ -93,8 +94,8 @@ public class CalendarGUI extends JFrame {
             if (res == JFileChooser.APPROVE_OPTION) {
                 java.io.File f = chooser.getSelectedFile();
                 try {
+                    // The change listener repaints the affected cells
                     calendar.loadTasksFromFile(f.getAbsolutePath());
-                    refreshCalendar();
                     detailsArea.setText("Imported tasks from " + f.getName() + ". Total tasks: " + calendar.getTasksList().size());
                 } catch (Exception ex) {
                     detailsArea.setText("Failed to import tasks: " + ex.getMessage());
@@ -123,134 +124,172 @@ public class CalendarGUI extends JFrame {
         monthLabel.setForeground(ThemeManager.getTextColor());
         LocalDate firstOfMonth = currentYearMonth.atDay(1);
         int startIndex = firstOfMonth.getDayOfWeek().getValue() % 7; // Sunday -> 0
-        int daysInMonth = currentYearMonth.lengthOfMonth();
+        // One query for the whole month instead of two per cell
+        CalendarWindow window = calendar.getWindow(firstOfMonth, currentYearMonth.atEndOfMonth());
 
         for (int i = 0; i < 42; i++) {
-            RoundedPanel cell = new RoundedPanel(10, ThemeManager.getPanelBackground());
-            cell.setLayout(new BorderLayout());
-            cell.setOpaque(false);
-            int dayNumber = i - startIndex + 1;
-            if (dayNumber >= 1 && dayNumber <= daysInMonth) {
-                LocalDate d = currentYearMonth.atDay(dayNumber);
-
-                // Build a vertical panel so each task/event can be its own label and clickable
-                JPanel dayContent = new JPanel();
-                dayContent.setLayout(new BoxLayout(dayContent, BoxLayout.Y_AXIS));
-                dayContent.setOpaque(false);
-                dayContent.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
+            grid.add(buildCell(i - startIndex + 1, window));
+        }
 
-                // Day number label
-                JLabel dayNumLabel = new JLabel(String.valueOf(dayNumber));
-                dayNumLabel.setFont(new Font("SansSerif", Font.BOLD, 13));
-                dayNumLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                dayNumLabel.setForeground(ThemeManager.getTextColor());
-                dayContent.add(dayNumLabel);
+        grid.revalidate();
+        grid.repaint();
+    }
 
-                List<Task> tasks = calendar.getTasksOn(d);
-                int shown = 0;
-                for (Task t : tasks) {
-                    if (shown >= 3) break; // show up to 3 task names
-                    String name = t.getTaskName();
-                    String display = name.length() > 18 ? name.substring(0, 15) + "..." : name;
-                    final Task taskRef = t;
-                    JLabel taskLabel = new JLabel("• " + display + (AlarmManager.getScheduledTasks().contains(t) ? " 🔔" : ""));
-                    taskLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
-                    taskLabel.setForeground(ThemeManager.getTextColor());
-                    taskLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    taskLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                    taskLabel.addMouseListener(new java.awt.event.MouseAdapter() {
-                        @Override
-                        public void mouseClicked(java.awt.event.MouseEvent e) {
-                            DetailPage dp = new DetailPage(taskRef);
-                            dp.setVisible(true);
-                        }
-                    });
-                    dayContent.add(taskLabel);
-                    shown++;
-                }
-                if (tasks.size() > shown) {
-                    JLabel more = new JLabel("+" + (tasks.size() - shown) + " more");
-                    more.setFont(new Font("SansSerif", Font.PLAIN, 10));
-                    more.setForeground(ThemeManager.getTextColor());
-                    more.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    dayContent.add(more);
+    // Rebuild only the day cells touched by the changes instead of the whole month
+    private void patchCalendar(List<CalendarChange> changes, CalendarSnapshot snapshot) {
+        if (grid.getComponentCount() != 49) {
+            refreshCalendar();
+            return;
+        }
+        LocalDate firstOfMonth = currentYearMonth.atDay(1);
+        LocalDate lastOfMonth = currentYearMonth.atEndOfMonth();
+        int startIndex = firstOfMonth.getDayOfWeek().getValue() % 7; // Sunday -> 0
+        CalendarWindow window = null;
+        for (int dayNumber = 1; dayNumber <= currentYearMonth.lengthOfMonth(); dayNumber++) {
+            LocalDate d = currentYearMonth.atDay(dayNumber);
+            boolean affected = false;
+            for (CalendarChange change : changes) {
+                if (change.affects(d)) {
+                    affected = true;
+                    break;
                 }
+            }
+            if (!affected) continue;
+            if (window == null) {
+                window = calendar.getWindow(firstOfMonth, lastOfMonth);
+            }
+            // 7 weekday header labels come before the day cells
+            int index = 7 + startIndex + dayNumber - 1;
+            grid.remove(index);
+            grid.add(buildCell(dayNumber, window), index);
+        }
+        if (window != null) {
+            grid.revalidate();
+            grid.repaint();
+        }
+    }
 
-                // Events
-                List<Event> events = calendar.getEventsOn(d);
-                for (Event ev : events) {
-                    String name = ev.getEventName();
-                    String display = name.length() > 18 ? name.substring(0, 15) + "..." : name;
-                    final Event eventRef = ev;
-                    JLabel eventLabel = new JLabel("◆ " + display);
-                    eventLabel.setFont(new Font("SansSerif", Font.PLAIN, 10));
-                    // keep event marker color but ensure it is visible on dark backgrounds
-                    eventLabel.setForeground(new Color(180,100,200));
-                    eventLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    eventLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                    eventLabel.addMouseListener(new java.awt.event.MouseAdapter() {
-                        @Override
-                        public void mouseClicked(java.awt.event.MouseEvent e) {
-                            DetailPage dp = new DetailPage(eventRef);
-                            dp.setVisible(true);
-                        }
-                    });
-                    dayContent.add(eventLabel);
-                }
+    // Build one grid cell; dayNumber outside the current month gives an empty cell
+    private RoundedPanel buildCell(int dayNumber, CalendarWindow window) {
+        int daysInMonth = currentYearMonth.lengthOfMonth();
+        RoundedPanel cell = new RoundedPanel(10, ThemeManager.getPanelBackground());
+        cell.setLayout(new BorderLayout());
+        cell.setOpaque(false);
+        if (dayNumber >= 1 && dayNumber <= daysInMonth) {
+            LocalDate d = currentYearMonth.atDay(dayNumber);
 
-                cell.add(dayContent, BorderLayout.CENTER);
-                // Hover effect and today highlight
-                if (d.equals(LocalDate.now())) {
-                    cell.setFillColor(ThemeManager.getHeaderBackground());
-                } else {
-                    cell.setFillColor(ThemeManager.getPanelBackground());
-                }
-                cell.addMouseListener(new java.awt.event.MouseAdapter() {
-                    @Override
-                    public void mouseEntered(java.awt.event.MouseEvent e) {
-                        cell.setFillColor(ThemeManager.getButtonHoverColor());
-                        cell.repaint();
-                    }
+            // Build a vertical panel so each task/event can be its own label and clickable
+            JPanel dayContent = new JPanel();
+            dayContent.setLayout(new BoxLayout(dayContent, BoxLayout.Y_AXIS));
+            dayContent.setOpaque(false);
+            dayContent.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
+
+            // Day number label
+            JLabel dayNumLabel = new JLabel(String.valueOf(dayNumber));
+            dayNumLabel.setFont(new Font("SansSerif", Font.BOLD, 13));
+            dayNumLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+            dayNumLabel.setForeground(ThemeManager.getTextColor());
+            dayContent.add(dayNumLabel);
+
+            List<Task> tasks = window.getTasksOn(d);
+            int shown = 0;
+            for (Task t : tasks) {
+                if (shown >= 3) break; // show up to 3 task names
+                String name = t.getTaskName();
+                String display = name.length() > 18 ? name.substring(0, 15) + "..." : name;
+                final Task taskRef = t;
+                JLabel taskLabel = new JLabel("• " + display + (AlarmManager.hasAlarm(t) ? " 🔔" : ""));
+                taskLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
+                taskLabel.setForeground(ThemeManager.getTextColor());
+                taskLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+                taskLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
+                taskLabel.addMouseListener(new java.awt.event.MouseAdapter() {
                     @Override
-                    public void mouseExited(java.awt.event.MouseEvent e) {
-                        if (d.equals(LocalDate.now())) {
-                            cell.setFillColor(ThemeManager.getHeaderBackground());
-                        } else {
-                            cell.setFillColor(ThemeManager.getPanelBackground());
-                        }
-                        cell.repaint();
+                    public void mouseClicked(java.awt.event.MouseEvent e) {
+                        DetailPage dp = new DetailPage(taskRef);
+                        dp.setVisible(true);
                     }
+                });
+                dayContent.add(taskLabel);
+                shown++;
+            }
+            if (tasks.size() > shown) {
+                JLabel more = new JLabel("+" + (tasks.size() - shown) + " more");
+                more.setFont(new Font("SansSerif", Font.PLAIN, 10));
+                more.setForeground(ThemeManager.getTextColor());
+                more.setAlignmentX(Component.LEFT_ALIGNMENT);
+                dayContent.add(more);
+            }
+
+            // Events
+            List<Event> events = window.getEventsOn(d);
+            for (Event ev : events) {
+                String name = ev.getEventName();
+                String display = name.length() > 18 ? name.substring(0, 15) + "..." : name;
+                final Event eventRef = ev;
+                JLabel eventLabel = new JLabel("◆ " + display);
+                eventLabel.setFont(new Font("SansSerif", Font.PLAIN, 10));
+                // keep event marker color but ensure it is visible on dark backgrounds
+                eventLabel.setForeground(new Color(180,100,200));
+                eventLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+                eventLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
+                eventLabel.addMouseListener(new java.awt.event.MouseAdapter() {
                     @Override
                     public void mouseClicked(java.awt.event.MouseEvent e) {
-                        // Show details for this date in the right-hand panel if available
-                        if (detailsArea != null) {
-                            StringBuilder sb = new StringBuilder();
-                            sb.append("Date: ").append(d).append("\n\n");
-                            List<Task> tasks = calendar.getTasksOn(d);
-                            if (tasks.isEmpty()) sb.append("No tasks.\n");
-                            else {
-                                sb.append("Tasks:\n");
-                                for (Task t : tasks) sb.append("- ").append(t.getTaskName()).append("\n");
-                            }
-                            List<Event> evs = calendar.getEventsOn(d);
-                            if (evs.isEmpty()) sb.append("No events.\n");
-                            else {
-                                sb.append("\nEvents:\n");
-                                for (Event ev : evs) sb.append("- ").append(ev.getEventName()).append("\n");
-                            }
-                            detailsArea.setText(sb.toString());
-                        }
+                        DetailPage dp = new DetailPage(eventRef);
+                        dp.setVisible(true);
                     }
                 });
+                dayContent.add(eventLabel);
+            }
+
+            cell.add(dayContent, BorderLayout.CENTER);
+            // Hover effect and today highlight
+            if (d.equals(calendar.getClock().getToday())) {
+                cell.setFillColor(ThemeManager.getHeaderBackground());
             } else {
                 cell.setFillColor(ThemeManager.getPanelBackground());
             }
-            cell.setBorder(BorderFactory.createLineBorder(ThemeManager.getBorderColor()));
-            grid.add(cell);
+            cell.addMouseListener(new java.awt.event.MouseAdapter() {
+                @Override
+                public void mouseEntered(java.awt.event.MouseEvent e) {
+                    cell.setFillColor(ThemeManager.getButtonHoverColor());
+                    cell.repaint();
+                }
+                @Override
+                public void mouseExited(java.awt.event.MouseEvent e) {
+                    if (d.equals(calendar.getClock().getToday())) {
+                        cell.setFillColor(ThemeManager.getHeaderBackground());
+                    } else {
+                        cell.setFillColor(ThemeManager.getPanelBackground());
+                    }
+                    cell.repaint();
+                }
+                @Override
+                public void mouseClicked(java.awt.event.MouseEvent e) {
+                    // Show details for this date in the right-hand panel if available
+                    if (detailsArea != null) {
+                        StringBuilder sb = new StringBuilder();
+                        sb.append("Date: ").append(d).append("\n\n");
+                        if (calendar.countTasksOn(d) == 0) sb.append("No tasks.\n");
+                        else {
+                            sb.append("Tasks:\n");
+                            calendar.forEachTaskOn(d, t -> sb.append("- ").append(t.getTaskName()).append("\n"));
+                        }
+                        if (calendar.countEventsOn(d) == 0) sb.append("No events.\n");
+                        else {
+                            sb.append("\nEvents:\n");
+                            calendar.forEachEventOn(d, ev -> sb.append("- ").append(ev.getEventName()).append("\n"));
+                        }
+                        detailsArea.setText(sb.toString());
+                    }
+                }
+            });
+        } else {
+            cell.setFillColor(ThemeManager.getPanelBackground());
         }
-
-        grid.revalidate();
-        grid.repaint();
+        cell.setBorder(BorderFactory.createLineBorder(ThemeManager.getBorderColor()));
+        return cell;
     }
 
     // Apply theme to this window
@@ -0,0 +1,237 @@
+/**
+ * CalendarRegistry.java
+ *
+ * Named, independent calendars (work, personal, team) with merged read-only views.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Every calendar already keeps its tasks ordered by (due date, priority, id) and its events
+ * by (start, end, id), so a combined view is a k-way merge of k sorted sequences through a
+ * small heap: O(log k) per item, with no concatenating and re-sorting. Each query reads one
+ * snapshot per calendar, so the result is consistent per calendar even while they are
+ * being edited. Items are compared by the keys their snapshot filed them under, not keys
+ * recomputed from the live (possibly since edited) task or event. Ties between calendars
+ * go to the one registered first.
+ */
+public class CalendarRegistry {
+    private final Map<String, MyCalendar> calendars = new LinkedHashMap<>();
+
+    // Create and register an empty calendar under the given name
+    public synchronized MyCalendar create(String name) {
+        MyCalendar calendar = new MyCalendar();
+        add(name, calendar);
+        return calendar;
+    }
+
+    public synchronized void add(String name, MyCalendar calendar) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Calendar name cannot be empty.");
+        }
+        if (calendar == null) throw new IllegalArgumentException("Calendar cannot be null.");
+        if (calendars.containsKey(name)) {
+            throw new IllegalArgumentException("A calendar named '" + name + "' already exists.");
+        }
+        calendars.put(name, calendar);
+    }
+
+    // Returns the removed calendar, or null if there was none with that name
+    public synchronized MyCalendar remove(String name) {
+        return calendars.remove(name);
+    }
+
+    public synchronized MyCalendar get(String name) {
+        return calendars.get(name);
+    }
+
+    // Names in registration order
+    public synchronized List<String> getNames() {
+        return Collections.unmodifiableList(new ArrayList<>(calendars.keySet()));
+    }
+
+    public synchronized int size() {
+        return calendars.size();
+    }
+
+    // Name of the calendar holding this task, or null
+    public String getCalendarNameOf(Task task) {
+        for (Map.Entry<String, MyCalendar> entry : entries()) {
+            if (entry.getValue().getTaskById(task.getId()) == task) return entry.getKey();
+        }
+        return null;
+    }
+
+    // Name of the calendar holding this event, or null
+    public String getCalendarNameOf(Event event) {
+        for (Map.Entry<String, MyCalendar> entry : entries()) {
+            if (entry.getValue().getEventById(event.getId()) == event) return entry.getKey();
+        }
+        return null;
+    }
+
+    // All tasks of all calendars ordered by due date, then priority
+    public List<Task> getTasksList() {
+        return mergeTasks(null, null);
+    }
+
+    // Tasks due on the date from every calendar, highest priority first
+    public List<Task> getTasksOn(LocalDate date) {
+        return getTasksBetween(date, date);
+    }
+
+    // Tasks due in [from, to] (inclusive) from every calendar, by date then priority
+    public List<Task> getTasksBetween(LocalDate from, LocalDate to) {
+        return mergeTasks(TaskKey.startOf(from), TaskKey.startOf(to.plusDays(1)));
+    }
+
+    public int countTasksOn(LocalDate date) {
+        int count = 0;
+        for (CalendarSnapshot s : snapshots()) count += s.countTasksOn(date);
+        return count;
+    }
+
+    // All events of all calendars ordered by start date
+    public List<Event> getEventsList() {
+        List<Run<EventKey, Event>> runs = new ArrayList<>();
+        for (CalendarSnapshot s : snapshots()) {
+            Run<EventKey, Event> run = new Run<>(s.getEventCount());
+            s.eventTree().forEachAfter(null, run::add);
+            runs.add(run);
+        }
+        return merge(runs);
+    }
+
+    public List<Event> getEventsOn(LocalDate date) {
+        return getEventsBetween(date, date);
+    }
+
+    // Events overlapping [from, to] (inclusive) from every calendar, by start date
+    public List<Event> getEventsBetween(LocalDate from, LocalDate to) {
+        List<Run<EventKey, Event>> runs = new ArrayList<>();
+        for (CalendarSnapshot s : snapshots()) {
+            Run<EventKey, Event> run = new Run<>(0);
+            s.eventTree().forEachOverlappingWithKey(from, to, run::add);
+            runs.add(run);
+        }
+        return merge(runs);
+    }
+
+    /**
+     * Combined per-day buckets for [from, to] (inclusive) across all calendars, e.g. for a
+     * week or month view. Items arrive in merged order, so every bucket is already sorted.
+     */
+    public CalendarWindow getWindow(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Window end cannot be before its start.");
+        }
+        CalendarWindow window = CalendarWindow.empty(from, to);
+        for (Task task : getTasksBetween(from, to)) window.addTask(task);
+        for (Event event : getEventsBetween(from, to)) window.addEvent(event);
+        return window;
+    }
+
+    // fromInclusive is null or a TaskKey.startOf sentinel, which no task is filed under
+    private List<Task> mergeTasks(TaskKey fromInclusive, TaskKey toExclusive) {
+        List<Run<TaskKey, Task>> runs = new ArrayList<>();
+        for (CalendarSnapshot s : snapshots()) {
+            Run<TaskKey, Task> run = new Run<>(0);
+            s.taskMap().forEachAfter(fromInclusive, (key, task) -> {
+                if (toExclusive != null && key.compareTo(toExclusive) >= 0) return false;
+                return run.add(key, task);
+            });
+            runs.add(run);
+        }
+        return merge(runs);
+    }
+
+    private synchronized List<Map.Entry<String, MyCalendar>> entries() {
+        return new ArrayList<>(calendars.entrySet());
+    }
+
+    private synchronized List<CalendarSnapshot> snapshots() {
+        List<CalendarSnapshot> result = new ArrayList<>(calendars.size());
+        for (MyCalendar calendar : calendars.values()) result.add(calendar.snapshot());
+        return result;
+    }
+
+    // Read-only list of the merged sequence
+    static <T, K extends Comparable<K>> List<T> merge(List<Run<K, T>> runs) {
+        List<T> result = new ArrayList<>();
+        Iterator<T> it = new MergeIterator<>(runs);
+        while (it.hasNext()) result.add(it.next());
+        return Collections.unmodifiableList(result);
+    }
+
+    // One calendar's items in order, each with the key its snapshot filed it under
+    static final class Run<K, T> {
+        final List<K> keys;
+        final List<T> items;
+
+        Run(int expectedSize) {
+            keys = new ArrayList<>(expectedSize);
+            items = new ArrayList<>(expectedSize);
+        }
+
+        // Always true, so it can serve as a forEachAfter action that visits everything
+        boolean add(K key, T item) {
+            keys.add(key);
+            items.add(item);
+            return true;
+        }
+    }
+
+    /**
+     * Lazily merges runs that are each sorted by their keys. The heap holds the current
+     * head of every non-empty run.
+     */
+    static final class MergeIterator<T, K extends Comparable<K>> implements Iterator<T> {
+        private static final class Head<T, K> {
+            int next;
+            final int source;
+            final Run<K, T> run;
+
+            Head(int source, Run<K, T> run) {
+                this.source = source;
+                this.run = run;
+            }
+
+            K key() {
+                return run.keys.get(next);
+            }
+        }
+
+        private final PriorityQueue<Head<T, K>> heap;
+
+        MergeIterator(List<Run<K, T>> runs) {
+            this.heap = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+                int c = a.key().compareTo(b.key());
+                return c != 0 ? c : Integer.compare(a.source, b.source);
+            });
+            for (int i = 0; i < runs.size(); i++) {
+                if (!runs.get(i).items.isEmpty()) heap.add(new Head<>(i, runs.get(i)));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            Head<T, K> head = heap.poll();
+            if (head == null) throw new NoSuchElementException();
+            T item = head.run.items.get(head.next++);
+            if (head.next < head.run.items.size()) heap.add(head);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * CalendarSnapshot.java
+ *
+ * Immutable, consistent view of a calendar's tasks and events at one point in time.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Each MyCalendar mutation publishes a new snapshot in O(log n); unchanged parts of the
+ * task map and event tree are shared with the previous version. Holding a snapshot is
+ * free and it never changes, so pages, exporters and the alarm thread can read it
+ * without locks or copies while the calendar keeps being edited.
+ */
+public final class CalendarSnapshot {
+    private static final CalendarSnapshot EMPTY =
+        new CalendarSnapshot(PersistentSortedMap.empty(), EventIntervalTree.empty(), 0L);
+
+    private final PersistentSortedMap<TaskKey, Task> tasks;
+    private final EventIntervalTree events;
+    private final long version;
+
+    private CalendarSnapshot(PersistentSortedMap<TaskKey, Task> tasks, EventIntervalTree events, long version) {
+        this.tasks = tasks;
+        this.events = events;
+        this.version = version;
+    }
+
+    static CalendarSnapshot empty() {
+        return EMPTY;
+    }
+
+    CalendarSnapshot withTasks(PersistentSortedMap<TaskKey, Task> newTasks) {
+        return new CalendarSnapshot(newTasks, events, version + 1);
+    }
+
+    CalendarSnapshot withEvents(EventIntervalTree newEvents) {
+        return new CalendarSnapshot(tasks, newEvents, version + 1);
+    }
+
+    PersistentSortedMap<TaskKey, Task> taskMap() {
+        return tasks;
+    }
+
+    EventIntervalTree eventTree() {
+        return events;
+    }
+
+    // Increases by one with every published change
+    public long getVersion() {
+        return version;
+    }
+
+    public int getTaskCount() {
+        return tasks.size();
+    }
+
+    public int getEventCount() {
+        return events.size();
+    }
+
+    // All tasks sorted by due date, then priority (HIGH > MEDIUM > LOW); a view, not a copy
+    public List<Task> getTasksList() {
+        return tasks.values();
+    }
+
+    // Tasks in getTasksList order as a stream; call parallel() to split it across cores
+    public Stream<Task> taskStream() {
+        return StreamSupport.stream(tasks.spliterator(), false);
+    }
+
+    // Position of the task in getTasksList(), or -1 if it is not in this snapshot
+    public int indexOfTask(Task task) {
+        TaskKey key = TaskKey.of(task);
+        return tasks.get(key) == task ? tasks.rank(key) : -1;
+    }
+
+    // Tasks due on the date, sorted by priority (HIGH > MEDIUM > LOW); a view, not a copy
+    public List<Task> getTasksOn(LocalDate date) {
+        return tasks.valuesInRange(TaskKey.startOf(date), TaskKey.startOf(date.plusDays(1)));
+    }
+
+    // Visit the tasks due on the date in getTasksOn order, without building a list
+    public void forEachTaskOn(LocalDate date, Consumer<? super Task> action) {
+        tasks.forEachInRange(TaskKey.startOf(date), TaskKey.startOf(date.plusDays(1)), action);
+    }
+
+    public int countTasksOn(LocalDate date) {
+        return countTasksBetween(date, date);
+    }
+
+    // Number of tasks due in [from, to] (inclusive), from the tree's subtree sizes
+    public int countTasksBetween(LocalDate from, LocalDate to) {
+        return tasks.countInRange(TaskKey.startOf(from), TaskKey.startOf(to.plusDays(1)));
+    }
+
+    // All events ordered by start date; a view, not a copy
+    public List<Event> getEventsList() {
+        return events.asList();
+    }
+
+    // Position of the event in getEventsList(), or -1 if it is not in this snapshot
+    public int indexOfEvent(Event event) {
+        return events.indexOf(event);
+    }
+
+    /**
+     * Up to limit tasks sorting after the cursor (from the start if it is null), in
+     * getTasksList order. Costs O(log n + limit) however deep the cursor is.
+     */
+    public KeysetPage<Task, TaskKey> tasksAfter(TaskKey cursor, int limit) {
+        if (limit < 0) throw new IllegalArgumentException("Limit cannot be negative.");
+        List<Task> page = new ArrayList<>(Math.min(limit, getTaskCount()));
+        TaskKey[] last = {cursor};
+        boolean[] more = {false};
+        tasks.forEachAfter(cursor, (key, task) -> {
+            if (page.size() == limit) {
+                more[0] = true;
+                return false;
+            }
+            page.add(task);
+            last[0] = key;
+            return true;
+        });
+        return new KeysetPage<>(Collections.unmodifiableList(page), last[0], more[0]);
+    }
+
+    // Up to limit events sorting after the cursor (from the start if it is null), by start date
+    public KeysetPage<Event, EventKey> eventsAfter(EventKey cursor, int limit) {
+        if (limit < 0) throw new IllegalArgumentException("Limit cannot be negative.");
+        List<Event> page = new ArrayList<>(Math.min(limit, getEventCount()));
+        EventKey[] last = {cursor};
+        boolean[] more = {false};
+        events.forEachAfter(cursor, (key, event) -> {
+            if (page.size() == limit) {
+                more[0] = true;
+                return false;
+            }
+            page.add(event);
+            last[0] = key;
+            return true;
+        });
+        return new KeysetPage<>(Collections.unmodifiableList(page), last[0], more[0]);
+    }
+
+    public List<Event> getEventsOn(LocalDate date) {
+        return Collections.unmodifiableList(events.eventsOn(date));
+    }
+
+    // Visit the events covering the date in start-date order, without building a list
+    public void forEachEventOn(LocalDate date, Consumer<? super Event> action) {
+        events.forEachOn(date, action);
+    }
+
+    public int countEventsOn(LocalDate date) {
+        return events.countOverlapping(date, date);
+    }
+
+    // Events overlapping the inclusive range [from, to], ordered by start date
+    public List<Event> getEventsBetween(LocalDate from, LocalDate to) {
+        return Collections.unmodifiableList(events.eventsOverlapping(from, to));
+    }
+
+    /**
+     * Collect tasks and events for every day in [from, to] (inclusive) in one pass
+     * over each index, so a whole week or month view needs a single query.
+     */
+    public CalendarWindow getWindow(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Window end cannot be before its start.");
+        }
+        CalendarWindow window = CalendarWindow.empty(from, to);
+        // Tasks come out ordered by date then priority, so each bucket ends up priority-sorted
+        tasks.forEachInRange(TaskKey.startOf(from), TaskKey.startOf(to.plusDays(1)), window::addTask);
+        events.forEachOverlapping(from, to, window::addEvent);
+        return window;
+    }
+}
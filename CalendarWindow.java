@@ -0,0 +1,105 @@
+/**
+ * CalendarWindow.java
+ *
+ * Read-only per-day task and event buckets for a contiguous range of dates.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class CalendarWindow {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<List<Task>> taskBuckets;
+    private final List<List<Event>> eventBuckets;
+    // Read-only wrappers made once per day, so repeated getTasksOn calls allocate nothing
+    private final List<List<Task>> taskViews;
+    private final List<List<Event>> eventViews;
+
+    // Built by MyCalendar.getWindow; days are indexed by offset from 'from'
+    CalendarWindow(LocalDate from, LocalDate to, List<List<Task>> taskBuckets, List<List<Event>> eventBuckets) {
+        this.from = from;
+        this.to = to;
+        this.taskBuckets = taskBuckets;
+        this.eventBuckets = eventBuckets;
+        this.taskViews = new ArrayList<>(taskBuckets.size());
+        this.eventViews = new ArrayList<>(eventBuckets.size());
+        for (List<Task> bucket : taskBuckets) taskViews.add(Collections.unmodifiableList(bucket));
+        for (List<Event> bucket : eventBuckets) eventViews.add(Collections.unmodifiableList(bucket));
+    }
+
+    // Empty, mutable-bucket window for MyCalendar to fill in
+    static CalendarWindow empty(LocalDate from, LocalDate to) {
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        List<List<Task>> tasks = new ArrayList<>(days);
+        List<List<Event>> events = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            tasks.add(new ArrayList<>());
+            events.add(new ArrayList<>());
+        }
+        return new CalendarWindow(from, to, tasks, events);
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    // Tasks due on the date, sorted by priority (HIGH > MEDIUM > LOW)
+    public List<Task> getTasksOn(LocalDate date) {
+        if (!contains(date)) return Collections.emptyList();
+        return taskViews.get(offset(date));
+    }
+
+    // Events covering the date, in start-date order
+    public List<Event> getEventsOn(LocalDate date) {
+        if (!contains(date)) return Collections.emptyList();
+        return eventViews.get(offset(date));
+    }
+
+    public int countTasksOn(LocalDate date) {
+        return contains(date) ? taskBuckets.get(offset(date)).size() : 0;
+    }
+
+    public int countEventsOn(LocalDate date) {
+        return contains(date) ? eventBuckets.get(offset(date)).size() : 0;
+    }
+
+    // Visit the day's tasks without wrapping the bucket in a new list
+    public void forEachTaskOn(LocalDate date, Consumer<? super Task> action) {
+        if (contains(date)) taskBuckets.get(offset(date)).forEach(action);
+    }
+
+    public void forEachEventOn(LocalDate date, Consumer<? super Event> action) {
+        if (contains(date)) eventBuckets.get(offset(date)).forEach(action);
+    }
+
+    void addTask(Task task) {
+        taskBuckets.get(offset(task.getDueDate())).add(task);
+    }
+
+    // Add the event to every day of the window it covers
+    void addEvent(Event event) {
+        int first = Math.max(0, offset(event.getStartDate()));
+        int last = Math.min(eventBuckets.size() - 1, offset(event.getEndDate()));
+        for (int i = first; i <= last; i++) {
+            eventBuckets.get(i).add(event);
+        }
+    }
+
+    private int offset(LocalDate date) {
+        long diff = date.toEpochDay() - from.toEpochDay();
+        if (diff < Integer.MIN_VALUE) return Integer.MIN_VALUE;
+        if (diff > Integer.MAX_VALUE) return Integer.MAX_VALUE;
+        return (int) diff;
+    }
+}
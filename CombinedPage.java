@@ -1,6 +1,10 @@
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Combined page showing Tasks and Events side-by-side (50/50).
@@ -12,6 +16,15 @@ public class CombinedPage extends JFrame {
     private JScrollPane tasksScroll;
     private JScrollPane eventsScroll;
     private JPanel mainPanel;
+    // Row shown for each item, so changes can patch single rows
+    private final Map<Task, Component> taskRows = new IdentityHashMap<>();
+    private final Map<Event, Component> eventRows = new IdentityHashMap<>();
+    // Both lists load a page at a time; each cursor is the sort key of its last loaded row
+    private static final int PAGE_SIZE = 100;
+    private TaskKey taskCursor;
+    private EventKey eventCursor;
+    private boolean moreTasks;
+    private boolean moreEvents;
 
     public CombinedPage(MyCalendar calendar) {
         this.calendar = calendar;
@@ -77,50 +90,121 @@ public class CombinedPage extends JFrame {
             }
         });
 
-        refresh();
         applyTheme();
+        UIUtils.loadMoreOnScroll(tasksScroll, this::loadMoreTasks);
+        UIUtils.loadMoreOnScroll(eventsScroll, this::loadMoreEvents);
+        UIUtils.listenWhileShowing(this, calendar, this::onCalendarChanged, this::refresh);
     }
 
     public void refresh() {
-        List<Task> tasks = calendar.getTasksList();
-        List<Event> events = calendar.getEventsList();
+        KeysetPage<Task, TaskKey> tasks = calendar.tasksAfter(null, PAGE_SIZE);
+        KeysetPage<Event, EventKey> events = calendar.eventsAfter(null, PAGE_SIZE);
         tasksPanel.removeAll();
         eventsPanel.removeAll();
+        taskRows.clear();
+        eventRows.clear();
+        taskCursor = tasks.getNextCursor();
+        moreTasks = tasks.hasMore();
+        eventCursor = events.getNextCursor();
+        moreEvents = events.hasMore();
 
-        if (tasks.isEmpty()) {
+        if (tasks.getItems().isEmpty()) {
             JLabel empty = new JLabel("No tasks added yet.");
             empty.setFont(new Font("Segoe UI", Font.PLAIN, 14));
             empty.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
             tasksPanel.add(empty);
+            tasksPanel.add(Box.createVerticalGlue());
         } else {
-            for (Task t : tasks) {
-                JPanel row = createTaskRow(t);
-                tasksPanel.add(row);
-                tasksPanel.add(Box.createVerticalStrut(8));
-            }
+            appendRows(tasksPanel, taskRows, tasks.getItems(), this::createTaskRow);
         }
 
-        if (events.isEmpty()) {
+        if (events.getItems().isEmpty()) {
             JLabel empty = new JLabel("No events added yet.");
             empty.setFont(new Font("Segoe UI", Font.PLAIN, 14));
             empty.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
             eventsPanel.add(empty);
+            eventsPanel.add(Box.createVerticalGlue());
         } else {
-            for (Event ev : events) {
-                JPanel row = createEventRow(ev);
-                eventsPanel.add(row);
-                eventsPanel.add(Box.createVerticalStrut(8));
-            }
+            appendRows(eventsPanel, eventRows, events.getItems(), this::createEventRow);
         }
 
-        tasksPanel.add(Box.createVerticalGlue());
-        eventsPanel.add(Box.createVerticalGlue());
         tasksPanel.revalidate();
         eventsPanel.revalidate();
         tasksPanel.repaint();
         eventsPanel.repaint();
     }
 
+    // Append the next page of tasks when the task list is scrolled near its end
+    private void loadMoreTasks() {
+        if (!moreTasks || taskRows.isEmpty()) return;
+        KeysetPage<Task, TaskKey> page = calendar.tasksAfter(taskCursor, PAGE_SIZE);
+        taskCursor = page.getNextCursor();
+        moreTasks = page.hasMore();
+        tasksPanel.remove(tasksPanel.getComponentCount() - 1);
+        appendRows(tasksPanel, taskRows, page.getItems(), this::createTaskRow);
+        tasksPanel.revalidate();
+        tasksPanel.repaint();
+    }
+
+    private void loadMoreEvents() {
+        if (!moreEvents || eventRows.isEmpty()) return;
+        KeysetPage<Event, EventKey> page = calendar.eventsAfter(eventCursor, PAGE_SIZE);
+        eventCursor = page.getNextCursor();
+        moreEvents = page.hasMore();
+        eventsPanel.remove(eventsPanel.getComponentCount() - 1);
+        appendRows(eventsPanel, eventRows, page.getItems(), this::createEventRow);
+        eventsPanel.revalidate();
+        eventsPanel.repaint();
+    }
+
+    // Add a row and spacer per item, then the trailing glue
+    private static <T> void appendRows(JPanel panel, Map<T, Component> rows, List<T> items, Function<T, JPanel> factory) {
+        for (T item : items) {
+            JPanel row = factory.apply(item);
+            rows.put(item, row);
+            panel.add(row);
+            panel.add(Box.createVerticalStrut(8));
+        }
+        panel.add(Box.createVerticalGlue());
+    }
+
+    // Position among the loaded rows, or -1 if the item is gone or not loaded yet
+    private int loadedIndexOf(CalendarSnapshot snapshot, Task t) {
+        int index = snapshot.indexOfTask(t);
+        if (index < 0 || (moreTasks && TaskKey.of(t).compareTo(taskCursor) > 0)) return -1;
+        return index;
+    }
+
+    private int loadedIndexOf(CalendarSnapshot snapshot, Event e) {
+        int index = snapshot.indexOfEvent(e);
+        if (index < 0 || (moreEvents && EventKey.of(e).compareTo(eventCursor) > 0)) return -1;
+        return index;
+    }
+
+    // Patch only the rows for items that changed
+    private void onCalendarChanged(List<CalendarChange> changes, CalendarSnapshot snapshot) {
+        List<Task> changedTasks = new ArrayList<>();
+        List<Event> changedEvents = new ArrayList<>();
+        for (CalendarChange change : changes) {
+            if (change.isTaskChange()) changedTasks.add(change.getTask());
+            else changedEvents.add(change.getEvent());
+        }
+        // Switching to or from an empty-list message, or a bulk change, needs the full rebuild
+        if ((!changedTasks.isEmpty() && (taskRows.isEmpty() || snapshot.getTaskCount() == 0
+                    || changedTasks.size() > taskRows.size() / 2))
+                || (!changedEvents.isEmpty() && (eventRows.isEmpty() || snapshot.getEventCount() == 0
+                    || changedEvents.size() > eventRows.size() / 2))) {
+            refresh();
+            return;
+        }
+        if (!changedTasks.isEmpty()) {
+            UIUtils.patchRows(tasksPanel, taskRows, changedTasks, t -> loadedIndexOf(snapshot, t), this::createTaskRow, 8, false);
+        }
+        if (!changedEvents.isEmpty()) {
+            UIUtils.patchRows(eventsPanel, eventRows, changedEvents, e -> loadedIndexOf(snapshot, e), this::createEventRow, 8, false);
+        }
+    }
+
     private JPanel createTaskRow(Task t) {
         RoundedPanel p = new RoundedPanel(10, ThemeManager.getPanelBackground());
         p.setLayout(new BorderLayout(8,8));
@@ -133,7 +217,7 @@ public class CombinedPage extends JFrame {
 
         // bell if scheduled
         try {
-            if (AlarmManager.getScheduledTasks().contains(t)) {
+            if (AlarmManager.hasAlarm(t)) {
                 JLabel bell = new JLabel("\uD83D\uDD14");
                 bell.setFont(new Font("Segoe UI Symbol", Font.PLAIN, 14));
                 bell.setForeground(new Color(220, 100, 20));
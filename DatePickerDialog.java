@@ -111,7 +111,7 @@ public class DatePickerDialog extends JDialog {
         LocalDate firstDay = currentMonth.atDay(1);
         int firstDayOfWeek = firstDay.getDayOfWeek().getValue() % 7; // 0 = Sunday
         int daysInMonth = currentMonth.lengthOfMonth();
-        LocalDate today = LocalDate.now();
+        LocalDate today = CalendarClock.today();
 
         // Add empty cells for days before the month starts
         for (int i = 0; i < firstDayOfWeek; i++) {
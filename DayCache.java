@@ -0,0 +1,145 @@
+/**
+ * DayCache.java
+ *
+ * Bounded least-recently-used cache of per-day task and event lists.
+ */
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * MyCalendar answers getTasksOn/getEventsOn from here. Each entry holds one day's results
+ * as read-only lists over the snapshot they came from; when the calendar changes, only
+ * the days the change touched (old and new dates of a task, old and new span of an event)
+ * are dropped, so navigating back and forth or re-rendering the same week keeps hitting.
+ * A batch of changes larger than the cache simply empties it. Thread-safe; every method
+ * synchronizes on the cache.
+ */
+public final class DayCache {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // One day's results; both lists are read-only
+    static final class Day {
+        final List<Task> tasks;
+        final List<Event> events;
+
+        Day(List<Task> tasks, List<Event> events) {
+            this.tasks = tasks;
+            this.events = events;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<LocalDate, Day> days;
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    public DayCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive.");
+        this.capacity = capacity;
+        // Access order, so the eldest entry is the least recently used one
+        this.days = new LinkedHashMap<LocalDate, Day>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, Day> eldest) {
+                return size() > DayCache.this.capacity;
+            }
+        };
+    }
+
+    // Cached results for the date, or null (counted as a miss)
+    synchronized Day get(LocalDate date) {
+        Day day = days.get(date);
+        if (day != null) hits++;
+        else misses++;
+        return day;
+    }
+
+    /**
+     * Cache the results unless the calendar moved on while they were computed. MyCalendar
+     * publishes a new snapshot before invalidating, so checking stillCurrent under this
+     * lock means a stale result can never land after its invalidation.
+     */
+    synchronized void put(LocalDate date, Day day, BooleanSupplier stillCurrent) {
+        if (stillCurrent.getAsBoolean()) days.put(date, day);
+    }
+
+    // Drop every day any of the changes touched
+    synchronized void invalidate(List<CalendarChange> changes) {
+        if (days.isEmpty()) return;
+        if (changes.size() > capacity) {
+            invalidations += days.size();
+            days.clear();
+            return;
+        }
+        for (CalendarChange c : changes) {
+            invalidate(c.getOldStart(), c.getOldEnd());
+            invalidate(c.getNewStart(), c.getNewEnd());
+        }
+    }
+
+    private void invalidate(LocalDate from, LocalDate to) {
+        if (from == null || to == null) return;
+        long span = to.toEpochDay() - from.toEpochDay() + 1;
+        if (span <= days.size()) {
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                if (days.remove(d) != null) invalidations++;
+            }
+            return;
+        }
+        // Long event spans: cheaper to test each cached day than each day of the span
+        for (Iterator<LocalDate> it = days.keySet().iterator(); it.hasNext(); ) {
+            LocalDate d = it.next();
+            if (!d.isBefore(from) && !d.isAfter(to)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        days.clear();
+    }
+
+    public synchronized int size() {
+        return days.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // Number of cached days dropped because a change touched them
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        invalidations = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("DayCache[%d/%d days, %d hits, %d misses, %d invalidated]",
+                days.size(), capacity, hits, misses, invalidations);
+    }
+}
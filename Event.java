@@ -4,21 +4,29 @@
  * Data model for multi-day events.
  */
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Event {
-    private String eventName;
-    private LocalDate startDate;
-    private LocalDate endDate;
-    private String description;
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    private final long id;
+    // Volatile so alarm and loader threads see edits made on the EDT
+    private volatile String eventName;
+    private volatile LocalDate startDate;
+    private volatile LocalDate endDate;
+    private volatile String description;
+    // Owning calendar, which applies edits so its interval index and listeners stay current
+    private volatile MyCalendar calendar;
 
     // Constructor
     public Event(String eventName, LocalDate startDate, LocalDate endDate) {
         if (endDate.isBefore(startDate)) {
             throw new IllegalArgumentException("End date cannot be before start date.");
         }
-        this.eventName = eventName;
-        this.startDate = startDate;
-        this.endDate = endDate;
+        this.id = NEXT_ID.getAndIncrement();
+        this.eventName = ValuePool.name(eventName);
+        this.startDate = ValuePool.date(startDate);
+        this.endDate = ValuePool.date(endDate);
         this.description = "";
     }
 
@@ -27,13 +35,32 @@ public class Event {
         if (endDate.isBefore(startDate)) {
             throw new IllegalArgumentException("End date cannot be before start date.");
         }
-        this.eventName = eventName;
-        this.startDate = startDate;
-        this.endDate = endDate;
-        this.description = description != null ? description : "";
+        this.id = NEXT_ID.getAndIncrement();
+        this.eventName = ValuePool.name(eventName);
+        this.startDate = ValuePool.date(startDate);
+        this.endDate = ValuePool.date(endDate);
+        this.description = ValuePool.description(description != null ? description : "");
+    }
+
+    // Constructor for an event read back from a store, keeping its saved id
+    Event(long id, String eventName, LocalDate startDate, LocalDate endDate, String description) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date cannot be before start date.");
+        }
+        this.id = id;
+        // Ids handed out later must not collide with restored ones
+        NEXT_ID.accumulateAndGet(id + 1, Math::max);
+        this.eventName = ValuePool.name(eventName);
+        this.startDate = ValuePool.date(startDate);
+        this.endDate = ValuePool.date(endDate);
+        this.description = ValuePool.description(description != null ? description : "");
     }
 
     // Getters
+    public long getId() {
+        return id;
+    }
+
     public String getEventName() {
         return eventName;
     }
@@ -52,25 +79,44 @@ public class Event {
 
     // Setters
     public void setEventName(String eventName) {
-        this.eventName = eventName;
+        String shared = ValuePool.name(eventName);
+        applyChange(() -> this.eventName = shared);
     }
 
     public void setStartDate(LocalDate startDate) {
         if (this.endDate.isBefore(startDate)) {
             throw new IllegalArgumentException("Start date cannot be after end date.");
         }
-        this.startDate = startDate;
+        LocalDate shared = ValuePool.date(startDate);
+        applyChange(() -> this.startDate = shared);
     }
 
     public void setEndDate(LocalDate endDate) {
         if (endDate.isBefore(this.startDate)) {
             throw new IllegalArgumentException("End date cannot be before start date.");
         }
-        this.endDate = endDate;
+        LocalDate shared = ValuePool.date(endDate);
+        applyChange(() -> this.endDate = shared);
     }
 
     public void setDescription(String description) {
-        this.description = description != null ? description : "";
+        String shared = ValuePool.description(description != null ? description : "");
+        applyChange(() -> this.description = shared);
+    }
+
+    // Route edits through the owning calendar, if any, so it can reindex and notify listeners
+    private void applyChange(Runnable change) {
+        MyCalendar owner = calendar;
+        if (owner != null) {
+            owner.updateEvent(this, change);
+        } else {
+            change.run();
+        }
+    }
+
+    // Set by MyCalendar when the event is added or removed
+    void setCalendar(MyCalendar calendar) {
+        this.calendar = calendar;
     }
 
     // Check if event spans multiple days
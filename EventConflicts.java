@@ -0,0 +1,140 @@
+/**
+ * EventConflicts.java
+ *
+ * Finds events whose date ranges overlap.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The full report is one sweep over the events in start order, keeping the events still
+ * "open" ordered by end date. Each new event first closes every open event that ended
+ * before it starts; whatever is still open overlaps it. That is O(n log n) plus one step
+ * per conflict, instead of comparing every pair of events day by day.
+ */
+public final class EventConflicts {
+
+    // One pair of overlapping events and the dates they share
+    public static final class Conflict {
+        private final Event first;
+        private final Event second;
+        private final LocalDate overlapStart;
+        private final LocalDate overlapEnd;
+
+        Conflict(Event first, Event second, LocalDate overlapStart, LocalDate overlapEnd) {
+            this.first = first;
+            this.second = second;
+            this.overlapStart = overlapStart;
+            this.overlapEnd = overlapEnd;
+        }
+
+        // The event that starts first (or, on the same day, sorts first)
+        public Event getFirst() {
+            return first;
+        }
+
+        public Event getSecond() {
+            return second;
+        }
+
+        public LocalDate getOverlapStart() {
+            return overlapStart;
+        }
+
+        public LocalDate getOverlapEnd() {
+            return overlapEnd;
+        }
+
+        @Override
+        public String toString() {
+            String when = overlapStart.equals(overlapEnd) ? overlapStart.toString() : overlapStart + " to " + overlapEnd;
+            return first.getEventName() + " overlaps " + second.getEventName() + " (" + when + ")";
+        }
+    }
+
+    private EventConflicts() {
+    }
+
+    // Every overlapping pair in the snapshot, ordered by the later-starting event
+    public static List<Conflict> findAll(CalendarSnapshot snapshot) {
+        return sweep(snapshot.getEventsList());
+    }
+
+    // Every overlapping pair among the given events, in any order
+    public static List<Conflict> findAll(Collection<? extends Event> events) {
+        List<Event> sorted = new ArrayList<>(events);
+        sorted.sort((a, b) -> EventKey.of(a).compareTo(EventKey.of(b)));
+        return sweep(sorted);
+    }
+
+    /**
+     * Conflicts between one event and the rest of the snapshot, found through the interval
+     * index in O(log n + conflicts); used to warn as soon as an event is created.
+     */
+    public static List<Conflict> findWith(CalendarSnapshot snapshot, Event event) {
+        EventKey key = EventKey.of(event);
+        List<Conflict> result = new ArrayList<>();
+        snapshot.eventTree().forEachOverlapping(key.getStartDate(), key.getEndDate(), other -> {
+            if (other == event) return;
+            EventKey otherKey = EventKey.of(other);
+            result.add(otherKey.compareTo(key) < 0 ? conflict(other, otherKey, event, key) : conflict(event, key, other, otherKey));
+        });
+        return result;
+    }
+
+    // Plain-text report, one line per conflict
+    public static String report(List<Conflict> conflicts) {
+        if (conflicts.isEmpty()) return "No overlapping events.";
+        StringBuilder sb = new StringBuilder();
+        sb.append(conflicts.size()).append(" overlapping event pair(s):");
+        for (Conflict c : conflicts) {
+            sb.append(System.lineSeparator()).append("  ").append(c);
+        }
+        return sb.toString();
+    }
+
+    // Events must be in EventKey order (start date, end date, id)
+    private static List<Conflict> sweep(List<Event> eventsByStart) {
+        List<Conflict> result = new ArrayList<>();
+        // Open events ordered by end date, then by their own key
+        TreeSet<Open> open = new TreeSet<>();
+        for (Event event : eventsByStart) {
+            EventKey key = EventKey.of(event);
+            while (!open.isEmpty() && open.first().key.getEndDay() < key.getStartDay()) {
+                open.pollFirst();
+            }
+            // Report the earlier-starting partners first
+            List<Open> partners = new ArrayList<>(open);
+            partners.sort((a, b) -> a.key.compareTo(b.key));
+            for (Open o : partners) result.add(conflict(o.event, o.key, event, key));
+            open.add(new Open(event, key));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Conflict conflict(Event first, EventKey firstKey, Event second, EventKey secondKey) {
+        long start = Math.max(firstKey.getStartDay(), secondKey.getStartDay());
+        long end = Math.min(firstKey.getEndDay(), secondKey.getEndDay());
+        return new Conflict(first, second, ValuePool.dateOfEpochDay(start), ValuePool.dateOfEpochDay(end));
+    }
+
+    private static final class Open implements Comparable<Open> {
+        final Event event;
+        final EventKey key;
+
+        Open(Event event, EventKey key) {
+            this.event = event;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(Open o) {
+            int c = Long.compare(key.getEndDay(), o.key.getEndDay());
+            return c != 0 ? c : key.compareTo(o.key);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/**
+ * EventIntervalTree.java
+ *
+ * Interval index over events keyed on their start/end dates.
+ */
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * Balanced (AVL) interval tree ordered by start date. Every node also stores the
+ * latest end date found in its subtree so stabbing and range queries can skip whole
+ * subtrees, giving O(log n + k) lookups. The tree is immutable: add and remove return
+ * a new tree that shares every untouched subtree with the old one.
+ */
+public final class EventIntervalTree {
+
+    private static final EventIntervalTree EMPTY = new EventIntervalTree(null);
+
+    private final Node root;
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long id;
+        final Event event;
+        final Node left;
+        final Node right;
+        final int height;
+        final int size;
+        final long maxEnd;
+
+        Node(long start, long end, long id, Event event, Node left, Node right) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.event = event;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+            long m = end;
+            if (left != null && left.maxEnd > m) m = left.maxEnd;
+            if (right != null && right.maxEnd > m) m = right.maxEnd;
+            this.maxEnd = m;
+        }
+
+        Node with(Node newLeft, Node newRight) {
+            return new Node(start, end, id, event, newLeft, newRight);
+        }
+    }
+
+    private EventIntervalTree(Node root) {
+        this.root = root;
+    }
+
+    public static EventIntervalTree empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // True if this very event (not just one with the same id) is filed under its current dates
+    public boolean contains(Event event) {
+        Node n = find(root, key(event, event.getStartDate(), event.getEndDate()));
+        return n != null && n.event == event;
+    }
+
+    // New tree including the event under its current start and end dates
+    public EventIntervalTree add(Event event) {
+        Node key = key(event, event.getStartDate(), event.getEndDate());
+        if (find(root, key) != null) return this;
+        return new EventIntervalTree(insert(root, key));
+    }
+
+    // New tree without the event, which must have been added with the given span. A detached
+    // copy with the same id and span is not the filed event and leaves the tree unchanged.
+    public EventIntervalTree remove(Event event, LocalDate startDate, LocalDate endDate) {
+        Node key = key(event, startDate, endDate);
+        Node n = find(root, key);
+        if (n == null || n.event != event) return this;
+        return new EventIntervalTree(delete(root, key));
+    }
+
+    // Visit every event that covers the given date, in start-date order
+    public void forEachOn(LocalDate date, Consumer<? super Event> action) {
+        long day = date.toEpochDay();
+        forEachOverlapping(root, day, day, n -> action.accept(n.event));
+    }
+
+    // Visit every event overlapping [from, to] (inclusive), in start-date order
+    public void forEachOverlapping(LocalDate from, LocalDate to, Consumer<? super Event> action) {
+        forEachOverlapping(root, from.toEpochDay(), to.toEpochDay(), n -> action.accept(n.event));
+    }
+
+    // Same, also passing the key each event is filed under, which stays valid if the event is edited later
+    void forEachOverlappingWithKey(LocalDate from, LocalDate to, BiConsumer<EventKey, Event> action) {
+        forEachOverlapping(root, from.toEpochDay(), to.toEpochDay(), n -> action.accept(new EventKey(n.start, n.end, n.id), n.event));
+    }
+
+    // Number of events overlapping [from, to] (inclusive), counted without collecting them
+    public int countOverlapping(LocalDate from, LocalDate to) {
+        return countOverlapping(root, from.toEpochDay(), to.toEpochDay());
+    }
+
+    public List<Event> eventsOn(LocalDate date) {
+        List<Event> result = new ArrayList<>();
+        forEachOn(date, result::add);
+        return result;
+    }
+
+    public List<Event> eventsOverlapping(LocalDate from, LocalDate to) {
+        List<Event> result = new ArrayList<>();
+        forEachOverlapping(from, to, result::add);
+        return result;
+    }
+
+    // Read-only view of all events ordered by start date (then end date, then id); no copy is made
+    public List<Event> asList() {
+        return new AbstractList<Event>() {
+            @Override
+            public Event get(int index) {
+                return getAt(index);
+            }
+
+            @Override
+            public int size() {
+                return EventIntervalTree.this.size();
+            }
+
+            @Override
+            public Iterator<Event> iterator() {
+                return new InOrderIterator(root);
+            }
+        };
+    }
+
+    // In-order walk with an explicit stack: O(1) amortized per event instead of a get(i) descent each
+    private static final class InOrderIterator implements Iterator<Event> {
+        private final ArrayDeque<Node> stack = new ArrayDeque<>();
+
+        InOrderIterator(Node root) {
+            for (Node n = root; n != null; n = n.left) {
+                stack.push(n);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Event next() {
+            if (stack.isEmpty()) throw new NoSuchElementException();
+            Node n = stack.pop();
+            for (Node c = n.right; c != null; c = c.left) {
+                stack.push(c);
+            }
+            return n.event;
+        }
+    }
+
+    // Visit events sorting after the key (all if null) in start-date order, until the action returns false
+    public void forEachAfter(EventKey afterExclusive, BiPredicate<EventKey, Event> action) {
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        Node n = root;
+        while (n != null) {
+            if (afterExclusive == null || compare(n, afterExclusive) > 0) {
+                stack.push(n);
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        while (!stack.isEmpty()) {
+            Node next = stack.pop();
+            if (!action.test(new EventKey(next.start, next.end, next.id), next.event)) return;
+            for (Node c = next.right; c != null; c = c.left) {
+                stack.push(c);
+            }
+        }
+    }
+
+    private static int compare(Node n, EventKey k) {
+        int c = Long.compare(n.start, k.getStartDay());
+        if (c != 0) return c;
+        c = Long.compare(n.end, k.getEndDay());
+        if (c != 0) return c;
+        return Long.compare(n.id, k.getId());
+    }
+
+    // Position of the event in start-date order, or -1 if it is not in the tree
+    public int indexOf(Event event) {
+        Node key = key(event, event.getStartDate(), event.getEndDate());
+        int rank = 0;
+        Node n = root;
+        while (n != null) {
+            int c = compare(key, n);
+            if (c == 0) return rank + size(n.left);
+            if (c < 0) {
+                n = n.left;
+            } else {
+                rank += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return -1;
+    }
+
+    private Event getAt(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index);
+        Node n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index == leftSize) {
+                return n.event;
+            } else {
+                index -= leftSize + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    private static Node key(Event event, LocalDate startDate, LocalDate endDate) {
+        return new Node(startDate.toEpochDay(), endDate.toEpochDay(), event.getId(), event, null, null);
+    }
+
+    private static Node find(Node n, Node key) {
+        while (n != null) {
+            int c = compare(key, n);
+            if (c == 0) return n;
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    private static void forEachOverlapping(Node node, long from, long to, Consumer<Node> action) {
+        while (node != null && node.maxEnd >= from) {
+            forEachOverlapping(node.left, from, to, action);
+            if (node.start > to) return; // everything to the right starts even later
+            if (node.end >= from) action.accept(node);
+            node = node.right;
+        }
+    }
+
+    private static int countOverlapping(Node node, long from, long to) {
+        int count = 0;
+        while (node != null && node.maxEnd >= from) {
+            count += countOverlapping(node.left, from, to);
+            if (node.start > to) return count;
+            if (node.end >= from) count++;
+            node = node.right;
+        }
+        return count;
+    }
+
+    private static int compare(Node a, Node b) {
+        int c = Long.compare(a.start, b.start);
+        if (c != 0) return c;
+        c = Long.compare(a.end, b.end);
+        if (c != 0) return c;
+        return Long.compare(a.id, b.id);
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static Node insert(Node node, Node key) {
+        if (node == null) return key;
+        if (compare(key, node) < 0) {
+            return balance(node.with(insert(node.left, key), node.right));
+        }
+        return balance(node.with(node.left, insert(node.right, key)));
+    }
+
+    private static Node delete(Node node, Node key) {
+        if (node == null) return null;
+        int c = compare(key, node);
+        if (c < 0) return balance(node.with(delete(node.left, key), node.right));
+        if (c > 0) return balance(node.with(node.left, delete(node.right, key)));
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node successor = node.right;
+        while (successor.left != null) successor = successor.left;
+        return balance(successor.with(node.left, delete(node.right, successor)));
+    }
+
+    private static Node balance(Node n) {
+        int bf = height(n.left) - height(n.right);
+        if (bf > 1) {
+            Node l = n.left;
+            if (height(l.left) < height(l.right)) l = rotateLeft(l);
+            return rotateRight(n.with(l, n.right));
+        }
+        if (bf < -1) {
+            Node r = n.right;
+            if (height(r.right) < height(r.left)) r = rotateRight(r);
+            return rotateLeft(n.with(n.left, r));
+        }
+        return n;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        return l.with(l.left, n.with(l.right, n.right));
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        return r.with(n.with(n.left, r.left), r.right);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * EventKey.java
+ *
+ * Immutable sort key for events: start date, then end date, then event id.
+ */
+import java.time.LocalDate;
+
+public final class EventKey implements Comparable<EventKey> {
+    private final long startDay;
+    private final long endDay;
+    private final long id;
+
+    EventKey(long startDay, long endDay, long id) {
+        this.startDay = startDay;
+        this.endDay = endDay;
+        this.id = id;
+    }
+
+    // Capture the event's current start date, end date and id
+    public static EventKey of(Event event) {
+        return new EventKey(event.getStartDate().toEpochDay(), event.getEndDate().toEpochDay(), event.getId());
+    }
+
+    public LocalDate getStartDate() {
+        return LocalDate.ofEpochDay(startDay);
+    }
+
+    public LocalDate getEndDate() {
+        return LocalDate.ofEpochDay(endDay);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    long getStartDay() {
+        return startDay;
+    }
+
+    long getEndDay() {
+        return endDay;
+    }
+
+    @Override
+    public int compareTo(EventKey o) {
+        int c = Long.compare(startDay, o.startDay);
+        if (c != 0) return c;
+        c = Long.compare(endDay, o.endDay);
+        if (c != 0) return c;
+        return Long.compare(id, o.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof EventKey)) return false;
+        EventKey k = (EventKey) o;
+        return startDay == k.startDay && endDay == k.endDay && id == k.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(startDay) * 31 * 31 + Long.hashCode(endDay) * 31 + Long.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "EventKey[" + getStartDate() + ", " + getEndDate() + ", " + id + "]";
+    }
+}
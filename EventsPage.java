@@ -5,7 +5,10 @@
  */
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 //Helper to show events page in comparison to "TasksPage.java"
 public class EventsPage extends JFrame {
@@ -14,6 +17,18 @@ public class EventsPage extends JFrame {
     private JScrollPane scroll;
     private JPanel headerPanel;
     private JPanel mainPanel;
+    // Bubble shown for each event, so changes can patch single rows
+    private final Map<Event, Component> rows = new IdentityHashMap<>();
+    private final Random rnd = new Random();
+    private int prevColor = -1;
+
+    // Palette of four soft colors; choose randomly but ensure adjacent bubbles differ
+    private static final Color[] COLORS = new Color[] {
+        new Color(255,230,230),
+        new Color(235,245,255),
+        new Color(240,255,235),
+        new Color(250,240,255)
+    };
 //Created with assistance from Copilot
     public EventsPage(MyCalendar calendar) {
         this.calendar = calendar;
@@ -56,8 +71,8 @@ public class EventsPage extends JFrame {
 
         add(mainPanel, BorderLayout.CENTER);
 
-        refresh();
         applyTheme();
+        UIUtils.listenWhileShowing(this, calendar, this::onCalendarChanged, this::refresh);
         ThemeManager.addListener(new ThemeManager.ThemeChangeListener() {
             public void onThemeChanged(ThemeManager.Theme newTheme) {
                 applyTheme();
@@ -76,6 +91,7 @@ public class EventsPage extends JFrame {
     public void refresh() {
         List<Event> events = calendar.getEventsList();
         listPanel.removeAll();
+        rows.clear();
         if (events.isEmpty()) {
             JLabel empty = new JLabel("No events added yet.");
             empty.setFont(new Font("Segoe UI", Font.PLAIN, 14));
@@ -86,32 +102,43 @@ public class EventsPage extends JFrame {
             return;
         }
 
-            // Palette of four soft colors; choose randomly but ensure adjacent bubbles differ
-            Color[] colors = new Color[] {
-                new Color(255,230,230),
-                new Color(235,245,255),
-                new Color(240,255,235),
-                new Color(250,240,255)
-            };
-
-            Random rnd = new Random();
-            int prev = -1;
-            for (Event e : events) {
-                int pick = rnd.nextInt(colors.length);
-                if (pick == prev) {
-                    pick = (pick + 1) % colors.length;
-                }
-                Color bg = colors[pick];
-                prev = pick;
-                EventBubble bubble = new EventBubble(e, bg);
-                listPanel.add(Box.createVerticalStrut(8));
-                listPanel.add(bubble);
-            }
+        prevColor = -1;
+        for (Event e : events) {
+            Component bubble = createBubble(e);
+            rows.put(e, bubble);
+            listPanel.add(Box.createVerticalStrut(8));
+            listPanel.add(bubble);
+        }
         listPanel.add(Box.createVerticalGlue());
         listPanel.revalidate();
         listPanel.repaint();
     }
 
+    // Patch only the bubbles for events that changed
+    private void onCalendarChanged(List<CalendarChange> changes, CalendarSnapshot snapshot) {
+        List<Event> changed = new ArrayList<>();
+        for (CalendarChange change : changes) {
+            if (change.isEventChange()) changed.add(change.getEvent());
+        }
+        if (changed.isEmpty()) return;
+        if (rows.isEmpty() || snapshot.getEventCount() == 0 || changed.size() > rows.size() / 2) {
+            // Switching to or from the empty-list message, or a bulk change that is
+            // cheaper to rebuild than to patch row by row
+            refresh();
+            return;
+        }
+        UIUtils.patchRows(listPanel, rows, changed, snapshot::indexOfEvent, this::createBubble, 8, true);
+    }
+
+    private Component createBubble(Event e) {
+        int pick = rnd.nextInt(COLORS.length);
+        if (pick == prevColor) {
+            pick = (pick + 1) % COLORS.length;
+        }
+        prevColor = pick;
+        return new EventBubble(e, COLORS[pick]);
+    }
+
     // Small helper to style buttons in this page
     
 
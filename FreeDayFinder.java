@@ -0,0 +1,133 @@
+/**
+ * FreeDayFinder.java
+ *
+ * Finds stretches of days with no events and a light task load.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Days are never tested one at a time. Events are walked in start order from the interval
+ * index, and the gaps between them are the event-free stretches. Inside a gap the task map
+ * is visited one due date at a time: the number of tasks due that day is a difference of
+ * two ranks, and the walk then jumps straight to the next date that has any tasks. The
+ * cost depends on the events and busy task dates met before enough windows are found, not
+ * on the length of the horizon, and the walk stops as soon as the limit is reached.
+ */
+public final class FreeDayFinder {
+
+    // An inclusive run of consecutive free days
+    public static final class Window {
+        private final LocalDate start;
+        private final LocalDate end;
+
+        Window(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalDate getStart() {
+            return start;
+        }
+
+        public LocalDate getEnd() {
+            return end;
+        }
+
+        public int getLength() {
+            return (int) (end.toEpochDay() - start.toEpochDay()) + 1;
+        }
+
+        @Override
+        public String toString() {
+            return start.equals(end) ? start.toString() : start + " to " + end;
+        }
+    }
+
+    private final PersistentSortedMap<TaskKey, Task> tasks;
+    private final int minLength;
+    private final int maxTasksPerDay;
+    private final int limit;
+    private final List<Window> found = new ArrayList<>();
+
+    private FreeDayFinder(CalendarSnapshot snapshot, int minLength, int maxTasksPerDay, int limit) {
+        this.tasks = snapshot.taskMap();
+        this.minLength = minLength;
+        this.maxTasksPerDay = maxTasksPerDay;
+        this.limit = limit;
+    }
+
+    /**
+     * Up to limit maximal runs of at least minLength days in [from, until] (inclusive) on
+     * which no event takes place and at most maxTasksPerDay tasks are due, earliest first.
+     * Runs are clipped to the range.
+     */
+    public static List<Window> findWindows(CalendarSnapshot snapshot, LocalDate from, LocalDate until,
+                                           int minLength, int maxTasksPerDay, int limit) {
+        if (until.isBefore(from)) {
+            throw new IllegalArgumentException("Search end cannot be before its start.");
+        }
+        if (minLength < 1) throw new IllegalArgumentException("Window length must be at least 1.");
+        if (maxTasksPerDay < 0) throw new IllegalArgumentException("Task limit cannot be negative.");
+        if (limit <= 0) return Collections.emptyList();
+        FreeDayFinder finder = new FreeDayFinder(snapshot, minLength, maxTasksPerDay, limit);
+        finder.walk(snapshot.eventTree(), from.toEpochDay(), until.toEpochDay());
+        return Collections.unmodifiableList(finder.found);
+    }
+
+    // The first count free days in [from, until], whatever the length of the run they are in
+    public static List<LocalDate> findDays(CalendarSnapshot snapshot, LocalDate from, LocalDate until,
+                                           int maxTasksPerDay, int count) {
+        List<LocalDate> days = new ArrayList<>();
+        for (Window w : findWindows(snapshot, from, until, 1, maxTasksPerDay, count)) {
+            for (LocalDate d = w.getStart(); !d.isAfter(w.getEnd()) && days.size() < count; d = d.plusDays(1)) {
+                days.add(d);
+            }
+        }
+        return Collections.unmodifiableList(days);
+    }
+
+    private void walk(EventIntervalTree events, long from, long until) {
+        // Events already under way on the first day block everything up to their end
+        long[] freeFrom = {from};
+        events.forEachOn(ValuePool.dateOfEpochDay(from), e -> {
+            freeFrom[0] = Math.max(freeFrom[0], e.getEndDate().toEpochDay() + 1);
+        });
+        // Then every event starting on or after the first day, in start order
+        EventKey before = new EventKey(from - 1, Long.MAX_VALUE, Long.MAX_VALUE);
+        events.forEachAfter(before, (key, event) -> {
+            if (key.getStartDay() > until) return false;
+            if (key.getStartDay() > freeFrom[0]) {
+                scanGap(freeFrom[0], key.getStartDay() - 1);
+                if (found.size() >= limit) return false;
+            }
+            freeFrom[0] = Math.max(freeFrom[0], key.getEndDay() + 1);
+            return freeFrom[0] <= until;
+        });
+        if (found.size() < limit && freeFrom[0] <= until) scanGap(freeFrom[0], until);
+    }
+
+    // Split an event-free gap [first, last] at the days with too many tasks
+    private void scanGap(long first, long last) {
+        int pos = tasks.rank(TaskKey.startOf(ValuePool.dateOfEpochDay(first)));
+        int end = tasks.rank(TaskKey.startOf(ValuePool.dateOfEpochDay(last + 1)));
+        long runStart = first;
+        while (pos < end && found.size() < limit) {
+            long day = tasks.keyAt(pos).getDueDay();
+            int next = tasks.rank(TaskKey.startOf(ValuePool.dateOfEpochDay(day + 1)));
+            if (next - pos > maxTasksPerDay) {
+                emit(runStart, day - 1);
+                runStart = day + 1;
+            }
+            pos = next;
+        }
+        emit(runStart, last);
+    }
+
+    private void emit(long start, long end) {
+        if (found.size() >= limit || end - start + 1 < minLength) return;
+        found.add(new Window(ValuePool.dateOfEpochDay(start), ValuePool.dateOfEpochDay(end)));
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * KeysetPage.java
+ *
+ * One page of a sorted listing plus the cursor to continue after it.
+ */
+import java.util.List;
+
+/**
+ * Returned by MyCalendar.tasksAfter / eventsAfter. The cursor is the sort key of the last
+ * item on the page, so the next page starts right after it even if items were added or
+ * removed in between; fetching a page never depends on how many pages came before.
+ */
+public final class KeysetPage<T, K> {
+    private final List<T> items;
+    private final K nextCursor;
+    private final boolean hasMore;
+
+    KeysetPage(List<T> items, K nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Read-only, in sort order
+    public List<T> getItems() {
+        return items;
+    }
+
+    // Key of the last item, to pass to the next call. An empty page hands back the cursor
+    // it was asked for (null stays null), so a later call resumes from the same place
+    // rather than starting over.
+    public K getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
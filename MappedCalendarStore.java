@@ -0,0 +1,362 @@
+/**
+ * MappedCalendarStore.java
+ *
+ * Binary task and event file read in place through a memory mapping.
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout: a fixed header, then one fixed-width record per task (sorted like MyCalendar's
+ * task list), one per event (sorted by start date), and a heap of UTF-8 strings that the
+ * records point into. Opening a file maps it rather than parsing it; the records stay in
+ * the OS page cache instead of the Java heap, and queries binary-search them in place.
+ * Tasks and Events are only created for the rows a query returns, and are detached
+ * copies: editing them does not change the file.
+ *
+ * Each event record also holds the largest end date of all events up to it, so events
+ * overlapping a range are found by two binary searches and a short scan. One mapping
+ * covers at most 2 GB, which is tens of millions of records.
+ */
+public final class MappedCalendarStore {
+
+    private static final int MAGIC = 0x5443414C; // "TCAL"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int TASK_BYTES = 40;
+    private static final int EVENT_BYTES = 40;
+
+    // Header fields
+    private static final int H_MAGIC = 0;
+    private static final int H_FORMAT = 4;
+    private static final int H_TASKS = 8;
+    private static final int H_EVENTS = 12;
+    private static final int H_HEAP = 16;
+
+    // Task record fields
+    private static final int T_ID = 0;
+    private static final int T_DUE = 8;
+    private static final int T_COMPLETED = 12;
+    private static final int T_NAME = 16;
+    private static final int T_DESCRIPTION = 24;
+    private static final int T_PRIORITY = 32;
+    private static final int T_FLAGS = 33;
+
+    // Event record fields
+    private static final int E_ID = 0;
+    private static final int E_START = 8;
+    private static final int E_END = 12;
+    private static final int E_MAX_END = 16;
+    private static final int E_NAME = 20;
+    private static final int E_DESCRIPTION = 28;
+
+    // Field values meaning "none"
+    private static final int NO_DUE_DAY = Integer.MAX_VALUE;
+    private static final int NO_COMPLETION_DAY = Integer.MIN_VALUE;
+    private static final byte NO_PRIORITY = -1;
+    private static final byte FLAG_COMPLETED = 1;
+
+    private static final Task.TaskPriority[] PRIORITIES = Task.TaskPriority.values();
+
+    private final ByteBuffer buffer;
+    private final int taskCount;
+    private final int eventCount;
+    private final int tasksAt;
+    private final int eventsAt;
+    private final int heapAt;
+
+    private MappedCalendarStore(ByteBuffer buffer, int taskCount, int eventCount) {
+        this.buffer = buffer;
+        this.taskCount = taskCount;
+        this.eventCount = eventCount;
+        this.tasksAt = HEADER_BYTES;
+        this.eventsAt = tasksAt + taskCount * TASK_BYTES;
+        this.heapAt = eventsAt + eventCount * EVENT_BYTES;
+    }
+
+    /**
+     * Map an existing store file read-only. Throws IOException if the file is missing or
+     * is not a store written by write().
+     */
+    public static MappedCalendarStore open(String filename) throws IOException {
+        Path path = Paths.get(filename);
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a calendar store: " + filename);
+            }
+            // The mapping stays valid after the channel is closed
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        if (map.getInt(H_MAGIC) != MAGIC || map.getInt(H_FORMAT) != FORMAT) {
+            throw new IOException("Not a calendar store: " + filename);
+        }
+        int tasks = map.getInt(H_TASKS);
+        int events = map.getInt(H_EVENTS);
+        long expected = HEADER_BYTES + (long) tasks * TASK_BYTES + (long) events * EVENT_BYTES + map.getInt(H_HEAP);
+        if (tasks < 0 || events < 0 || expected != map.capacity()) {
+            throw new IOException("Calendar store is truncated or corrupt: " + filename);
+        }
+        return new MappedCalendarStore(map, tasks, events);
+    }
+
+    /**
+     * Write every task and event of the snapshot to filename. The file is written beside
+     * the target and moved into place, so a crash never leaves a half-written store.
+     */
+    public static void write(String filename, CalendarSnapshot snapshot) throws IOException {
+        // Already ordered by (due date, priority, id), which the day queries rely on
+        List<Task> tasks = snapshot.getTasksList();
+        List<Event> events = new ArrayList<>(snapshot.getEventsList());
+        events.sort((a, b) -> {
+            int c = a.getStartDate().compareTo(b.getStartDate());
+            if (c != 0) return c;
+            c = a.getEndDate().compareTo(b.getEndDate());
+            return c != 0 ? c : Long.compare(a.getId(), b.getId());
+        });
+
+        // Lay out the string heap first, storing each distinct string once
+        StringHeap heap = new StringHeap();
+        long total = HEADER_BYTES + (long) tasks.size() * TASK_BYTES + (long) events.size() * EVENT_BYTES;
+        int[] taskStrings = new int[tasks.size() * 2];
+        for (int row = 0; row < tasks.size(); row++) {
+            taskStrings[2 * row] = heap.place(tasks.get(row).getTaskName());
+            taskStrings[2 * row + 1] = heap.place(tasks.get(row).getDescription());
+        }
+        int[] eventStrings = new int[events.size() * 2];
+        for (int row = 0; row < events.size(); row++) {
+            eventStrings[2 * row] = heap.place(events.get(row).getEventName());
+            eventStrings[2 * row + 1] = heap.place(events.get(row).getDescription());
+        }
+        total += heap.length;
+        if (total > Integer.MAX_VALUE) throw new IOException("Calendar is too large for one store file.");
+
+        Path path = Paths.get(filename).toAbsolutePath();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            out.putInt(H_MAGIC, MAGIC);
+            out.putInt(H_FORMAT, FORMAT);
+            out.putInt(H_TASKS, tasks.size());
+            out.putInt(H_EVENTS, events.size());
+            out.putInt(H_HEAP, heap.length);
+
+            int at = HEADER_BYTES;
+            for (int row = 0; row < tasks.size(); row++, at += TASK_BYTES) {
+                Task t = tasks.get(row);
+                LocalDate due = t.getDueDate();
+                LocalDate completed = t.getCompletionDate();
+                Task.TaskPriority priority = t.getPriority();
+                out.putLong(at + T_ID, t.getId());
+                out.putInt(at + T_DUE, due == null ? NO_DUE_DAY : Math.toIntExact(due.toEpochDay()));
+                out.putInt(at + T_COMPLETED, completed == null ? NO_COMPLETION_DAY : Math.toIntExact(completed.toEpochDay()));
+                heap.putRef(out, at + T_NAME, taskStrings[2 * row]);
+                heap.putRef(out, at + T_DESCRIPTION, taskStrings[2 * row + 1]);
+                out.put(at + T_PRIORITY, priority == null ? NO_PRIORITY : (byte) priority.ordinal());
+                out.put(at + T_FLAGS, t.isCompleted() ? FLAG_COMPLETED : 0);
+            }
+            int maxEnd = Integer.MIN_VALUE;
+            for (int row = 0; row < events.size(); row++, at += EVENT_BYTES) {
+                Event e = events.get(row);
+                int end = Math.toIntExact(e.getEndDate().toEpochDay());
+                maxEnd = Math.max(maxEnd, end);
+                out.putLong(at + E_ID, e.getId());
+                out.putInt(at + E_START, Math.toIntExact(e.getStartDate().toEpochDay()));
+                out.putInt(at + E_END, end);
+                out.putInt(at + E_MAX_END, maxEnd);
+                heap.putRef(out, at + E_NAME, eventStrings[2 * row]);
+                heap.putRef(out, at + E_DESCRIPTION, eventStrings[2 * row + 1]);
+            }
+            for (byte[] bytes : heap.strings) {
+                out.put(at, bytes);
+                at += bytes.length;
+            }
+            out.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Distinct UTF-8 strings in the order they will be written, with their heap offsets
+    private static final class StringHeap {
+        final List<byte[]> strings = new ArrayList<>();
+        final List<Integer> offsets = new ArrayList<>();
+        final Map<String, Integer> index = new HashMap<>();
+        int length;
+
+        // Index of the string in the heap, adding it if new
+        int place(String s) {
+            if (s == null) s = "";
+            Integer i = index.get(s);
+            if (i == null) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                i = strings.size();
+                index.put(s, i);
+                strings.add(bytes);
+                offsets.add(length);
+                length = Math.addExact(length, bytes.length);
+            }
+            return i;
+        }
+
+        // Write the (offset, length) reference to string i at the given record position
+        void putRef(ByteBuffer out, int at, int i) {
+            out.putInt(at, offsets.get(i));
+            out.putInt(at + 4, strings.get(i).length);
+        }
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    // Bytes of the mapped file; none of it counts against the Java heap
+    public long getMappedBytes() {
+        return buffer.capacity();
+    }
+
+    // Task stored at row, as a detached copy
+    public Task getTask(int row) {
+        int at = taskAt(row);
+        int due = buffer.getInt(at + T_DUE);
+        int completed = buffer.getInt(at + T_COMPLETED);
+        byte priority = buffer.get(at + T_PRIORITY);
+        return new Task(buffer.getLong(at + T_ID),
+                        string(at + T_NAME),
+                        due == NO_DUE_DAY ? null : ValuePool.dateOfEpochDay(due),
+                        priority == NO_PRIORITY ? null : PRIORITIES[priority],
+                        string(at + T_DESCRIPTION),
+                        (buffer.get(at + T_FLAGS) & FLAG_COMPLETED) != 0 && completed != NO_COMPLETION_DAY
+                                ? ValuePool.dateOfEpochDay(completed) : null);
+    }
+
+    // Event stored at row, as a detached copy
+    public Event getEvent(int row) {
+        int at = eventAt(row);
+        return new Event(buffer.getLong(at + E_ID),
+                         string(at + E_NAME),
+                         ValuePool.dateOfEpochDay(buffer.getInt(at + E_START)),
+                         ValuePool.dateOfEpochDay(buffer.getInt(at + E_END)),
+                         string(at + E_DESCRIPTION));
+    }
+
+    public List<Task> getTasks() {
+        return getTasks(0, taskCount);
+    }
+
+    // Tasks for rows [fromRow, toRow), in calendar order
+    public List<Task> getTasks(int fromRow, int toRow) {
+        if (fromRow < 0 || toRow > taskCount || fromRow > toRow) {
+            throw new IndexOutOfBoundsException("Rows " + fromRow + ".." + toRow + " of " + taskCount);
+        }
+        List<Task> result = new ArrayList<>(toRow - fromRow);
+        for (int row = fromRow; row < toRow; row++) {
+            result.add(getTask(row));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public List<Event> getEvents() {
+        List<Event> result = new ArrayList<>(eventCount);
+        for (int row = 0; row < eventCount; row++) {
+            result.add(getEvent(row));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public List<Task> getTasksOn(LocalDate date) {
+        return getTasksBetween(date, date);
+    }
+
+    // Tasks due in [from, to] (inclusive), in calendar order
+    public List<Task> getTasksBetween(LocalDate from, LocalDate to) {
+        return getTasks(firstTaskOnOrAfter(from.toEpochDay()), firstTaskOnOrAfter(to.toEpochDay() + 1));
+    }
+
+    public int countTasksOn(LocalDate date) {
+        return countTasksBetween(date, date);
+    }
+
+    public int countTasksBetween(LocalDate from, LocalDate to) {
+        return Math.max(0, firstTaskOnOrAfter(to.toEpochDay() + 1) - firstTaskOnOrAfter(from.toEpochDay()));
+    }
+
+    public List<Event> getEventsOn(LocalDate date) {
+        return getEventsBetween(date, date);
+    }
+
+    // Events overlapping [from, to] (inclusive), ordered by start date
+    public List<Event> getEventsBetween(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        // Rows before `first` all end before `from`; rows from `end` on start after `to`
+        int lo = 0, hi = eventCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.getInt(eventAt(mid) + E_MAX_END) < fromDay) lo = mid + 1;
+            else hi = mid;
+        }
+        int first = lo;
+        lo = first;
+        hi = eventCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.getInt(eventAt(mid) + E_START) <= toDay) lo = mid + 1;
+            else hi = mid;
+        }
+        List<Event> result = new ArrayList<>();
+        for (int row = first; row < lo; row++) {
+            if (buffer.getInt(eventAt(row) + E_END) >= fromDay) result.add(getEvent(row));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    // First task row due on or after the epoch day
+    private int firstTaskOnOrAfter(long day) {
+        int lo = 0, hi = taskCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.getInt(taskAt(mid) + T_DUE) < day) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int taskAt(int row) {
+        if (row < 0 || row >= taskCount) throw new IndexOutOfBoundsException("Task row: " + row);
+        return tasksAt + row * TASK_BYTES;
+    }
+
+    private int eventAt(int row) {
+        if (row < 0 || row >= eventCount) throw new IndexOutOfBoundsException("Event row: " + row);
+        return eventsAt + row * EVENT_BYTES;
+    }
+
+    // Decode the (offset, length) string reference stored at the given record position
+    private String string(int at) {
+        int offset = buffer.getInt(at);
+        int length = buffer.getInt(at + 4);
+        byte[] bytes = new byte[length];
+        buffer.get(heapAt + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -5,6 +5,15 @@
  */
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import javax.swing.SwingUtilities;
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -13,16 +22,95 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+/**
+ * Safe for concurrent use: the EDT, alarm threads and background loaders may all read and
+ * write the same calendar. State lives in an immutable {@link CalendarSnapshot}; each
+ * mutation takes the write lock, builds the next snapshot in O(log n) and publishes it,
+ * so queries never lock and never see a half-applied change. Lookups by id or by name go
+ * through small hash indexes instead and hold the read lock just for the probe.
+ */
 public class MyCalendar {
 
     // Instance Variables
-    private LocalDate currentDate;
-    private final List<Task> tasksList = new ArrayList<>();
-    private final List<Event> eventsList = new ArrayList<>();
+    // Serializes writers; readers only read the volatile snapshot
+    private final StampedLock lock = new StampedLock();
+    // Source of today's date for expiry sweeps
+    private final CalendarClock clock;
+    private volatile LocalDate currentDate;
+    // Current published state: tasks ordered by (due date, priority, id) and the event interval tree
+    private volatile CalendarSnapshot state = CalendarSnapshot.empty();
+    // Day the last expiry sweep ran for; tasks due before it have already been removed
+    private volatile LocalDate lastExpirySweep;
+
+    // Listener interface for components that patch themselves when tasks or events change
+    public interface ChangeListener {
+        // Called on the EDT with every change made since the previous call, in order, and the
+        // snapshot published with the last of them. Positions (indexOfTask, ...) must be
+        // looked up in that snapshot: the calendar itself may already hold later changes
+        // that have not been delivered yet.
+        void onCalendarChanged(List<CalendarChange> changes, CalendarSnapshot snapshot);
+    }
+
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    // Changes waiting for the next EDT flush, and the snapshot that includes all of them;
+    // both guarded by pendingChanges' monitor
+    private final List<CalendarChange> pendingChanges = new ArrayList<>();
+    private CalendarSnapshot pendingSnapshot;
+    private boolean flushScheduled = false;
+
+    // Thread inside editTasks (holding the write lock); only ever equal to the current
+    // thread on that thread, so other threads can read it without synchronizing
+    private Thread batchEditor;
+    // Tasks edited during the current editTasks call and how they were filed before
+    private final Map<Task, PendingEdit> batchEdits = new LinkedHashMap<>();
+
+    private static final class PendingEdit {
+        final TaskKey key;
+        final String name;
+
+        PendingEdit(Task task) {
+            this.key = TaskKey.of(task);
+            this.name = task.getTaskName();
+        }
+    }
+
+    // Lookup indexes by id and by exact name. Unlike the snapshot these are mutable: they
+    // are written under the write lock and read under the read lock.
+    private final LongMap<Task> tasksById = new LongMap<>();
+    private final LongMap<Event> eventsById = new LongMap<>();
+    private final Map<String, LongMap<Task>> tasksByName = new HashMap<>();
+    private final Map<String, LongMap<Event>> eventsByName = new HashMap<>();
+    // Word indexes over names and descriptions, kept under the same lock
+    private final TextIndex<Task> taskText = new TextIndex<>();
+    private final TextIndex<Event> eventText = new TextIndex<>();
+    // Prefix trees of names for autocomplete
+    private final NameTrie taskNames = new NameTrie();
+    private final NameTrie eventNames = new NameTrie();
+    // Trigram indexes of names for typo-tolerant lookup
+    private final TrigramIndex<Task> taskTrigrams = new TrigramIndex<>();
+    private final TrigramIndex<Event> eventTrigrams = new TrigramIndex<>();
+    // "Blocks" relationships between tasks in this calendar, kept in topological order
+    private final TaskDependencies dependencies = new TaskDependencies();
+    // Longest getWindow range assembled from cached days rather than one index pass
+    private static final int WINDOW_FROM_CACHE_DAYS = 42;
+    // Recently queried days; entries are dropped when a change touches their date
+    private final DayCache dayCache = new DayCache(DayCache.DEFAULT_CAPACITY);
+    // Read-only archive mapped by openMappedFile; queried in place, never loaded
+    private volatile MappedCalendarStore mappedStore;
 
     // Constructor
     public MyCalendar() {
-        currentDate = LocalDate.now();
+        this(CalendarClock.getDefault());
+    }
+
+    // Calendar whose notion of "today" comes from the given clock (tests, simulations)
+    public MyCalendar(CalendarClock clock) {
+        this.clock = clock;
+        currentDate = clock.getToday();
+    }
+
+    public CalendarClock getClock() {
+        return clock;
     }
 
     // Methods
@@ -30,32 +118,594 @@ public class MyCalendar {
         System.out.println("Current date: " + currentDate);
     }
 
+    // Immutable view of every task and event as of now; free to take and to keep
+    public CalendarSnapshot snapshot() {
+        return state;
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    // Queue a change for listeners. Called under the write lock so queued order matches the
+    // order changes were applied; all changes queued before the EDT gets to run are
+    // delivered together in one call.
+    private void publish(CalendarChange change) {
+        publishAll(Collections.singletonList(change));
+    }
+
+    private void publishAll(List<CalendarChange> changes) {
+        if (changes.isEmpty()) return;
+        // The new snapshot is already in place, so cached days can be dropped now
+        dayCache.invalidate(changes);
+        if (changeListeners.isEmpty()) return;
+        synchronized (pendingChanges) {
+            pendingChanges.addAll(changes);
+            pendingSnapshot = state;
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        SwingUtilities.invokeLater(this::flushChanges);
+    }
+
+    private void flushChanges() {
+        List<CalendarChange> batch;
+        CalendarSnapshot snapshot;
+        synchronized (pendingChanges) {
+            batch = Collections.unmodifiableList(new ArrayList<>(pendingChanges));
+            snapshot = pendingSnapshot;
+            pendingChanges.clear();
+            pendingSnapshot = null;
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) return;
+        for (ChangeListener l : changeListeners) {
+            l.onCalendarChanged(batch, snapshot);
+        }
+    }
+
     public void addTask(Task task) {
-        tasksList.add(task);
-        System.out.println("Task added: " + task.getTaskName() + " due on " + task.getDueDate());
+        long stamp = lock.writeLock();
+        try {
+            if (containsTask(state, task)) return;
+            checkTaskIdFree(task, null);
+            state = state.withTasks(state.taskMap().put(TaskKey.of(task), task));
+            task.setCalendar(this);
+            indexTask(task);
+            publish(CalendarChange.taskAdded(task));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void removeTask(Task task) {
-        tasksList.remove(task);
+        long stamp = lock.writeLock();
+        try {
+            if (containsTask(state, task)) {
+                removeTasksLocked(Collections.singletonList(task));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
-    public List<Task> getTasksList() {
-        // Remove any tasks whose deadline has passed before returning the list.
-        removeExpiredTasks();
+    // Remove the task with this id, if any; returns true if one was removed
+    public boolean removeTaskById(long id) {
+        return removeTasksById(Collections.singletonList(id)) > 0;
+    }
+
+    /**
+     * Remove the tasks with these ids in one batch, as removeTasksIf does but looking each
+     * one up by id instead of testing every task. Returns the number removed.
+     */
+    public int removeTasksById(Collection<Long> ids) {
+        List<Task> removed = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            Set<Task> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (long id : ids) {
+                Task t = tasksById.get(id);
+                if (t != null && seen.add(t)) removed.add(t);
+            }
+            if (removed.isEmpty()) return 0;
+            removeTasksLocked(removed);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return removed.size();
+    }
+
+    public Task getTaskById(long id) {
+        long stamp = lock.readLock();
+        try {
+            return tasksById.get(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Every task whose name is exactly this, oldest first
+    public List<Task> getTasksNamed(String name) {
+        long stamp = lock.readLock();
+        try {
+            return byId(tasksByName.get(name), Task::getId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Record that blocker must be finished before blocked; both must be in this calendar.
+     * Only the part of the order between the two tasks is rearranged. Returns false if the
+     * dependency already existed; throws IllegalArgumentException if it would form a cycle.
+     */
+    public boolean addDependency(Task blocker, Task blocked) {
+        long stamp = lock.writeLock();
+        try {
+            if (tasksById.get(blocker.getId()) != blocker || tasksById.get(blocked.getId()) != blocked) {
+                throw new IllegalArgumentException("Both tasks must be in this calendar.");
+            }
+            return dependencies.add(blocker, blocked);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean removeDependency(Task blocker, Task blocked) {
+        long stamp = lock.writeLock();
+        try {
+            return dependencies.remove(blocker, blocked);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Tasks that must be finished before this one
+    public List<Task> getBlockers(Task task) {
+        long stamp = lock.readLock();
+        try {
+            return dependencies.getBlockers(task);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Tasks waiting on this one
+    public List<Task> getDependents(Task task) {
+        long stamp = lock.readLock();
+        try {
+            return dependencies.getDependents(task);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Every task with a dependency, each listed after all of its blockers
+    public List<Task> getTasksInDependencyOrder() {
+        long stamp = lock.readLock();
+        try {
+            return dependencies.getTopologicalOrder();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Chain of open dependent tasks with the least slack against their due dates, from today
+    public TaskDependencies.CriticalPath getCriticalPath() {
+        LocalDate today = clock.getToday();
+        long stamp = lock.readLock();
+        try {
+            return dependencies.getCriticalPath(today);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Add every task not already in the calendar under a single write lock, publishing one
+     * new snapshot and one batch of changes. Returns the number of tasks added.
+     */
+    public int addTasks(Collection<? extends Task> tasks) {
+        List<Task> added = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            PersistentSortedMap<TaskKey, Task> map = state.taskMap();
+            Set<Task> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            LongMap<Task> batchIds = new LongMap<>();
+            for (Task t : tasks) {
+                if (seen.add(t) && map.get(TaskKey.of(t)) != t) {
+                    checkTaskIdFree(t, batchIds);
+                    batchIds.put(t.getId(), t);
+                    added.add(t);
+                }
+            }
+            if (added.isEmpty()) return 0;
+            state = state.withTasks(putAll(map, added));
+            List<CalendarChange> changes = new ArrayList<>(added.size());
+            for (Task t : added) {
+                t.setCalendar(this);
+                indexTask(t);
+                changes.add(CalendarChange.taskAdded(t));
+            }
+            publishAll(changes);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return added.size();
+    }
+
+    /**
+     * Remove every task matching the filter under a single write lock, publishing one new
+     * snapshot and one batch of changes. The filter runs while the lock is held, so it
+     * must not modify tasks or the calendar. Returns the number of tasks removed.
+     */
+    public int removeTasksIf(Predicate<? super Task> filter) {
+        List<Task> removed = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            for (Task t : state.getTasksList()) {
+                if (filter.test(t)) removed.add(t);
+            }
+            if (removed.isEmpty()) return 0;
+            removeTasksLocked(removed);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return removed.size();
+    }
+
+    /**
+     * Apply the edit to each task under a single write lock, then re-key every edited task
+     * once and publish one new snapshot and one batch of changes. The edit should go
+     * through the task setters (or Task.editTask) and must not add or remove items.
+     * Tasks not in this calendar when the lock is taken are skipped, so a task moved to
+     * another calendar is never edited (or locked) from here. Returns the number of tasks
+     * in this calendar that were edited.
+     */
+    public int editTasks(Collection<? extends Task> tasks, Consumer<? super Task> edit) {
+        int edited;
+        long stamp = lock.writeLock();
+        try {
+            batchEditor = Thread.currentThread();
+            try {
+                for (Task t : tasks) {
+                    // By id rather than key: an earlier edit in this batch may have moved t
+                    if (tasksById.get(t.getId()) != t) continue;
+                    edit.accept(t);
+                }
+            } finally {
+                batchEditor = null;
+                // Re-key whatever was edited, even if the edit failed part way through
+                edited = applyBatchEdits();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return edited;
+    }
+
+    /*
+     * Parallel bulk operations. They read one snapshot with no lock held, splitting it
+     * across the common fork-join pool, so they scale with cores and never hold up the
+     * EDT or writers; call them off the EDT for very large calendars. Predicates and
+     * functions run concurrently on worker threads and must not modify tasks.
+     */
+
+    // Tasks matching the filter, in getTasksList order, evaluated in parallel
+    public List<Task> filterTasksParallel(Predicate<? super Task> filter) {
+        return Collections.unmodifiableList(state.taskStream().parallel().filter(filter).collect(Collectors.toList()));
+    }
+
+    public long countTasksParallel(Predicate<? super Task> filter) {
+        return state.taskStream().parallel().filter(filter).count();
+    }
+
+    /**
+     * Reduce every task with the collector in parallel, e.g.
+     * aggregateTasksParallel(Collectors.groupingByConcurrent(Task::getPriority, Collectors.counting())).
+     */
+    public <R> R aggregateTasksParallel(Collector<? super Task, ?, R> collector) {
+        return state.taskStream().parallel().collect(collector);
+    }
+
+    /**
+     * Move every task matching the filter to the due date computed for it. New dates are
+     * computed in parallel from a snapshot; they are then applied in one batch (one write
+     * lock, one snapshot, one change batch) like editTasks, which skips any task removed
+     * in between. A null date leaves the task where it is. Returns the number of tasks moved.
+     */
+    public int rescheduleTasksParallel(Predicate<? super Task> filter, Function<? super Task, LocalDate> newDueDate) {
+        Map<Task, LocalDate> plan = state.taskStream().parallel()
+                .filter(filter)
+                .map(t -> new AbstractMap.SimpleImmutableEntry<Task, LocalDate>(t, newDueDate.apply(t)))
+                .filter(e -> e.getValue() != null && !e.getValue().equals(e.getKey().getDueDate()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, IdentityHashMap::new));
+        if (plan.isEmpty()) return 0;
+        return editTasks(plan.keySet(), t -> t.setdueDate(plan.get(t)));
+    }
+
+    // Caller must hold the write lock; re-keys everything collected in batchEdits
+    private int applyBatchEdits() {
+        PersistentSortedMap<TaskKey, Task> old = state.taskMap();
+        // Past a quarter of the map, re-sorting everything beats moving tasks one by one
+        boolean rebuild = batchEdits.size() > old.size() / 4;
+        PersistentSortedMap<TaskKey, Task> map = old;
+        List<CalendarChange> changes = new ArrayList<>(batchEdits.size());
+        for (Map.Entry<Task, PendingEdit> e : batchEdits.entrySet()) {
+            Task t = e.getKey();
+            TaskKey oldKey = e.getValue().key;
+            if (old.get(oldKey) != t) continue;
+            reindexTask(t, e.getValue().name);
+            TaskKey newKey = TaskKey.of(t);
+            if (!rebuild && !newKey.equals(oldKey)) {
+                map = map.remove(oldKey).put(newKey, t);
+            }
+            changes.add(CalendarChange.taskEdited(t, oldKey.getDueDate()));
+        }
+        batchEdits.clear();
+        if (rebuild && !changes.isEmpty()) {
+            map = putAll(PersistentSortedMap.empty(), new ArrayList<>(old.values()));
+        }
+        if (map != state.taskMap()) state = state.withTasks(map);
+        publishAll(changes);
+        return changes.size();
+    }
+
+    // Insert a batch one by one into a large map, or merge and rebuild in O(n) when the
+    // batch is big enough that n separate path copies would cost more
+    private static PersistentSortedMap<TaskKey, Task> putAll(PersistentSortedMap<TaskKey, Task> map, List<Task> tasks) {
+        if (tasks.size() < map.size() / 4) {
+            for (Task t : tasks) map = map.put(TaskKey.of(t), t);
+            return map;
+        }
+        List<Task> sorted = new ArrayList<>(tasks);
+        List<TaskKey> sortedKeys = keysOf(sorted);
+        Integer[] order = new Integer[sorted.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> sortedKeys.get(a).compareTo(sortedKeys.get(b)));
+        List<TaskKey> keys = new ArrayList<>(map.size() + tasks.size());
+        List<Task> values = new ArrayList<>(map.size() + tasks.size());
+        Iterator<Task> existing = map.values().iterator();
+        Task next = existing.hasNext() ? existing.next() : null;
+        TaskKey nextKey = next != null ? TaskKey.of(next) : null;
+        for (int i : order) {
+            TaskKey key = sortedKeys.get(i);
+            while (next != null && nextKey.compareTo(key) < 0) {
+                keys.add(nextKey);
+                values.add(next);
+                next = existing.hasNext() ? existing.next() : null;
+                nextKey = next != null ? TaskKey.of(next) : null;
+            }
+            keys.add(key);
+            values.add(sorted.get(i));
+        }
+        while (next != null) {
+            keys.add(nextKey);
+            values.add(next);
+            next = existing.hasNext() ? existing.next() : null;
+            nextKey = next != null ? TaskKey.of(next) : null;
+        }
+        return PersistentSortedMap.ofSorted(keys, values);
+    }
+
+    private static List<TaskKey> keysOf(List<Task> tasks) {
+        List<TaskKey> keys = new ArrayList<>(tasks.size());
+        for (Task t : tasks) keys.add(TaskKey.of(t));
+        return keys;
+    }
+
+    /**
+     * Tasks whose name or description contains every word of the query, best match first,
+     * skipping offset matches and returning at most limit. Words are matched whole and
+     * case-insensitively; a word in the name counts more than one in the description.
+     */
+    public TextIndex.Page<Task> searchTasks(String query, int offset, int limit) {
+        long stamp = lock.readLock();
+        try {
+            return taskText.search(query, offset, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Typo-tolerant lookup: tasks whose name, or one word of it, is within maxDistance
+     * edits of the query (ignoring case and punctuation), closest first.
+     */
+    public List<Task> fuzzySearchTasks(String query, int maxDistance, int limit) {
+        long stamp = lock.readLock();
+        try {
+            return taskTrigrams.search(query, maxDistance, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Same, allowing more typos for longer queries
+    public List<Task> fuzzySearchTasks(String query, int limit) {
+        return fuzzySearchTasks(query, TrigramIndex.defaultDistance(query), limit);
+    }
+
+    // Up to limit existing task names starting with the prefix (any case), most used first
+    public List<String> completeTaskName(String prefix, int limit) {
+        long stamp = lock.readLock();
+        try {
+            return taskNames.complete(prefix, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Caller must hold the write lock; every task must be in the current snapshot
+    private void removeTasksLocked(List<Task> removed) {
+        PersistentSortedMap<TaskKey, Task> map = state.taskMap();
+        if (removed.size() < map.size() / 4) {
+            for (Task t : removed) map = map.remove(TaskKey.of(t));
+        } else {
+            // Removing a large share: rebuilding from the survivors is O(n)
+            Set<Task> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+            gone.addAll(removed);
+            List<Task> kept = new ArrayList<>(map.size() - removed.size());
+            for (Task t : map.values()) {
+                if (!gone.contains(t)) kept.add(t);
+            }
+            map = PersistentSortedMap.ofSorted(keysOf(kept), kept);
+        }
+        state = state.withTasks(map);
+        List<CalendarChange> changes = new ArrayList<>(removed.size());
+        for (Task t : removed) {
+            t.setCalendar(null);
+            unindexTask(t, t.getTaskName());
+            changes.add(CalendarChange.taskRemoved(t, t.getDueDate()));
+        }
+        publishAll(changes);
+    }
+
+    // Index maintenance; callers hold the write lock
+    private void indexTask(Task task) {
+        tasksById.put(task.getId(), task);
+        tasksByName.computeIfAbsent(task.getTaskName(), k -> new LongMap<>()).put(task.getId(), task);
+        taskText.put(task.getId(), task, task.getTaskName(), task.getDescription());
+        taskNames.add(task.getTaskName());
+        taskTrigrams.put(task.getId(), task, task.getTaskName());
+    }
+
+    private void unindexTask(Task task, String name) {
+        tasksById.remove(task.getId());
+        dependencies.removeTask(task.getId());
+        removeFromNameIndex(tasksByName, name, task.getId());
+        taskText.remove(task.getId());
+        taskNames.remove(name);
+        taskTrigrams.remove(task.getId());
+    }
+
+    // After an edit: move the task between name buckets and refresh its words
+    private void reindexTask(Task task, String oldName) {
+        taskText.put(task.getId(), task, task.getTaskName(), task.getDescription());
+        if (Objects.equals(oldName, task.getTaskName())) return;
+        removeFromNameIndex(tasksByName, oldName, task.getId());
+        tasksByName.computeIfAbsent(task.getTaskName(), k -> new LongMap<>()).put(task.getId(), task);
+        taskNames.remove(oldName);
+        taskNames.add(task.getTaskName());
+        taskTrigrams.put(task.getId(), task, task.getTaskName());
+    }
+
+    private void indexEvent(Event event) {
+        eventsById.put(event.getId(), event);
+        eventsByName.computeIfAbsent(event.getEventName(), k -> new LongMap<>()).put(event.getId(), event);
+        eventText.put(event.getId(), event, event.getEventName(), event.getDescription());
+        eventNames.add(event.getEventName());
+        eventTrigrams.put(event.getId(), event, event.getEventName());
+    }
+
+    private void unindexEvent(Event event) {
+        eventsById.remove(event.getId());
+        removeFromNameIndex(eventsByName, event.getEventName(), event.getId());
+        eventText.remove(event.getId());
+        eventNames.remove(event.getEventName());
+        eventTrigrams.remove(event.getId());
+    }
+
+    private void reindexEvent(Event event, String oldName) {
+        eventText.put(event.getId(), event, event.getEventName(), event.getDescription());
+        if (Objects.equals(oldName, event.getEventName())) return;
+        removeFromNameIndex(eventsByName, oldName, event.getId());
+        eventsByName.computeIfAbsent(event.getEventName(), k -> new LongMap<>()).put(event.getId(), event);
+        eventNames.remove(oldName);
+        eventNames.add(event.getEventName());
+        eventTrigrams.put(event.getId(), event, event.getEventName());
+    }
+
+    private static <T> void removeFromNameIndex(Map<String, LongMap<T>> index, String name, long id) {
+        LongMap<T> ids = index.get(name);
+        if (ids == null) return;
+        ids.remove(id);
+        if (ids.isEmpty()) index.remove(name);
+    }
+
+    // Items of one name bucket ordered by id, i.e. by creation
+    private static <T> List<T> byId(LongMap<T> ids, ToLongFunction<T> idOf) {
+        if (ids == null) return Collections.emptyList();
+        List<T> result = ids.values();
+        result.sort(Comparator.comparingLong(idOf));
+        return Collections.unmodifiableList(result);
+    }
 
-        List<Task> sortedTasks = new ArrayList<>(tasksList);
-        sortedTasks.sort((a, b) -> {
-            // First sort by due date (earlier dates first)
-            int dateComparison = a.getDueDate().compareTo(b.getDueDate());
-            if (dateComparison != 0) {
-                return dateComparison;
+    // Called by Task to apply an edit while holding the write lock, so readers never see
+    // the task filed under a stale key and listeners hear about the edit
+    void updateTask(Task task, Runnable change) {
+        if (batchEditor == Thread.currentThread()) {
+            // Inside editTasks: the lock is already held and re-keying happens once at the end
+            batchEdits.computeIfAbsent(task, PendingEdit::new);
+            change.run();
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            TaskKey oldKey = TaskKey.of(task);
+            LocalDate oldDueDate = task.getDueDate();
+            String oldName = task.getTaskName();
+            boolean present = state.taskMap().get(oldKey) == task;
+            change.run();
+            if (present) {
+                reindexTask(task, oldName);
+                TaskKey newKey = TaskKey.of(task);
+                if (!newKey.equals(oldKey)) {
+                    state = state.withTasks(state.taskMap().remove(oldKey).put(newKey, task));
+                }
+                publish(CalendarChange.taskEdited(task, oldDueDate));
             }
-            // Then sort by priority (HIGH > MEDIUM > LOW)
-            int aPriority = a.getPriority() != null ? a.getPriority().ordinal() : -1;
-            int bPriority = b.getPriority() != null ? b.getPriority().ordinal() : -1;
-            return Integer.compare(bPriority, aPriority);
-        });
-        return Collections.unmodifiableList(sortedTasks);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Detached copies (e.g. rows read back from a MappedCalendarStore) keep the id of the
+     * task they were made from. Adding one next to the original would silently replace it
+     * in the indexes, so a different object with a live id is refused. Caller holds the
+     * write lock; batch holds ids already accepted in the same call, or is null.
+     */
+    private void checkTaskIdFree(Task task, LongMap<Task> batch) {
+        Task existing = tasksById.get(task.getId());
+        if (existing == null && batch != null) existing = batch.get(task.getId());
+        if (existing != null && existing != task) {
+            throw new IllegalArgumentException("Another task with id " + task.getId() + " is already in this calendar.");
+        }
+    }
+
+    private void checkEventIdFree(Event event, LongMap<Event> batch) {
+        Event existing = eventsById.get(event.getId());
+        if (existing == null && batch != null) existing = batch.get(event.getId());
+        if (existing != null && existing != event) {
+            throw new IllegalArgumentException("Another event with id " + event.getId() + " is already in this calendar.");
+        }
+    }
+
+    private static boolean containsTask(CalendarSnapshot snapshot, Task task) {
+        return snapshot.taskMap().get(TaskKey.of(task)) == task;
+    }
+
+    // Sorted by due date, then priority (HIGH > MEDIUM > LOW). This is a view of an
+    // immutable snapshot, so it is never copied and never changes under the caller.
+    public List<Task> getTasksList() {
+        return state.getTasksList();
+    }
+
+    public int getTaskCount() {
+        return state.getTaskCount();
+    }
+
+    /**
+     * Next page of getTasksList after the cursor (null for the first page), keyed on
+     * (due date, priority, id). Pass the returned page's getNextCursor() to continue.
+     */
+    public KeysetPage<Task, TaskKey> tasksAfter(TaskKey cursor, int limit) {
+        return state.tasksAfter(cursor, limit);
     }
 
     /**
@@ -63,73 +713,319 @@ public class MyCalendar {
      * Returns the number of removed tasks.
      */
     public int removeExpiredTasks() {
-        LocalDate today = LocalDate.now();
-        int removed = 0;
-        Iterator<Task> it = tasksList.iterator();
-        while (it.hasNext()) {
-            Task t = it.next();
-            if (t.getDueDate() != null && t.getDueDate().isBefore(today)) {
-                it.remove();
-                removed++;
-                System.out.println("Removed expired task: " + t.getTaskName() + " due " + t.getDueDate());
-            }
+        long stamp = lock.writeLock();
+        try {
+            return removeExpiredLocked();
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return removed;
+    }
+
+    // Caller must hold the write lock
+    private int removeExpiredLocked() {
+        LocalDate today = clock.getToday();
+        lastExpirySweep = today;
+        // Expired tasks are exactly the head of the ordered map, so only they are visited
+        List<Task> expired = new ArrayList<>();
+        state.taskMap().forEachInRange(null, TaskKey.startOf(today), expired::add);
+        if (expired.isEmpty()) return 0;
+        removeTasksLocked(expired);
+        return expired.size();
+    }
+
+    /**
+     * Run the expiry sweep if the date has changed since the last one.
+     * Intended to be called once at startup and again at each midnight rollover.
+     * Returns the number of removed tasks.
+     */
+    public int rollOverIfNeeded() {
+        if (clock.getToday().equals(lastExpirySweep)) return 0;
+        return removeExpiredTasks();
     }
 
     public void showTasksOn(LocalDate date) {
         System.out.println("Task(s) on " + date + ":");
-        boolean found = false;
-        for (Task task : tasksList) {
-            if (date.equals(task.getDueDate())) {
+        List<Task> tasks = getTasksOn(date);
+        if (tasks.isEmpty()) {
+            System.out.println("No task(s) due on this date.");
+        } else {
+            for (Task task : tasks) {
                 System.out.println("- " + task.getTaskName());
-                found = true;
             }
         }
-        if (!found) {
-            System.out.println("No task(s) due on this date.");
-        }
     }
 
-    // Return an immutable list of tasks for a specific date (sorted by priority)
+    // Tasks due on the date, sorted by priority; read-only, served from the day cache
+    // when the date was queried recently
     public List<Task> getTasksOn(LocalDate date) {
-        List<Task> result = new ArrayList<>();
-        for (Task task : tasksList) {
-            if (date.equals(task.getDueDate())) {
-                result.add(task);
-            }
-        }
-        // Sort by priority (HIGH > MEDIUM > LOW)
-        result.sort((a, b) -> {
-            int aPriority = a.getPriority() != null ? a.getPriority().ordinal() : -1;
-            int bPriority = b.getPriority() != null ? b.getPriority().ordinal() : -1;
-            return Integer.compare(bPriority, aPriority);
-        });
-        return Collections.unmodifiableList(result);
+        return cachedDay(date).tasks;
+    }
+
+    // Visit the tasks due on the date without allocating a list
+    public void forEachTaskOn(LocalDate date, Consumer<? super Task> action) {
+        state.forEachTaskOn(date, action);
+    }
+
+    public int countTasksOn(LocalDate date) {
+        return state.countTasksOn(date);
+    }
+
+    public int countTasksBetween(LocalDate from, LocalDate to) {
+        return state.countTasksBetween(from, to);
     }
 
     // Event management methods
     public void addEvent(Event event) {
-        eventsList.add(event);
-        System.out.println("Event added: " + event.getEventName() + " from " + event.getStartDate() + " to " + event.getEndDate());
+        long stamp = lock.writeLock();
+        try {
+            checkEventIdFree(event, null);
+            if (state.eventTree().contains(event)) return;
+            state = state.withEvents(state.eventTree().add(event));
+            event.setCalendar(this);
+            indexEvent(event);
+            publish(CalendarChange.eventAdded(event));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     public void removeEvent(Event event) {
-        eventsList.remove(event);
+        long stamp = lock.writeLock();
+        try {
+            if (state.eventTree().contains(event)) {
+                removeEventsLocked(Collections.singletonList(event));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Remove the event with this id, if any; returns true if one was removed
+    public boolean removeEventById(long id) {
+        return removeEventsById(Collections.singletonList(id)) > 0;
+    }
+
+    // Remove the events with these ids in one batch; returns the number removed
+    public int removeEventsById(Collection<Long> ids) {
+        List<Event> removed = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            Set<Event> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (long id : ids) {
+                Event e = eventsById.get(id);
+                if (e != null && seen.add(e)) removed.add(e);
+            }
+            if (removed.isEmpty()) return 0;
+            removeEventsLocked(removed);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return removed.size();
+    }
+
+    public Event getEventById(long id) {
+        long stamp = lock.readLock();
+        try {
+            return eventsById.get(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Events whose name or description contains every word of the query, best match
+     * first, skipping offset matches and returning at most limit.
+     */
+    public TextIndex.Page<Event> searchEvents(String query, int offset, int limit) {
+        long stamp = lock.readLock();
+        try {
+            return eventText.search(query, offset, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Events whose name, or one word of it, is within maxDistance edits of the query
+    public List<Event> fuzzySearchEvents(String query, int maxDistance, int limit) {
+        long stamp = lock.readLock();
+        try {
+            return eventTrigrams.search(query, maxDistance, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public List<Event> fuzzySearchEvents(String query, int limit) {
+        return fuzzySearchEvents(query, TrigramIndex.defaultDistance(query), limit);
+    }
+
+    // Up to limit existing event names starting with the prefix (any case), most used first
+    public List<String> completeEventName(String prefix, int limit) {
+        long stamp = lock.readLock();
+        try {
+            return eventNames.complete(prefix, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Every event whose name is exactly this, oldest first
+    public List<Event> getEventsNamed(String name) {
+        long stamp = lock.readLock();
+        try {
+            return byId(eventsByName.get(name), Event::getId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Caller must hold the write lock; every event must be in the current snapshot
+    private void removeEventsLocked(List<Event> removed) {
+        EventIntervalTree tree = state.eventTree();
+        List<CalendarChange> changes = new ArrayList<>(removed.size());
+        for (Event e : removed) {
+            tree = tree.remove(e, e.getStartDate(), e.getEndDate());
+            e.setCalendar(null);
+            unindexEvent(e);
+            changes.add(CalendarChange.eventRemoved(e));
+        }
+        state = state.withEvents(tree);
+        publishAll(changes);
+    }
+
+    /**
+     * Add every event not already in the calendar under a single write lock, publishing one
+     * new snapshot and one batch of changes. Returns the number of events added.
+     */
+    public int addEvents(Collection<? extends Event> events) {
+        List<CalendarChange> changes = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            EventIntervalTree tree = state.eventTree();
+            LongMap<Event> batchIds = new LongMap<>();
+            for (Event e : events) {
+                checkEventIdFree(e, batchIds);
+                batchIds.put(e.getId(), e);
+            }
+            for (Event e : events) {
+                EventIntervalTree updated = tree.add(e);
+                if (updated == tree) continue;
+                tree = updated;
+                e.setCalendar(this);
+                indexEvent(e);
+                changes.add(CalendarChange.eventAdded(e));
+            }
+            if (changes.isEmpty()) return 0;
+            state = state.withEvents(tree);
+            publishAll(changes);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return changes.size();
     }
 
+    /**
+     * Remove every event matching the filter under a single write lock, publishing one new
+     * snapshot and one batch of changes. The filter runs while the lock is held, so it
+     * must not modify events or the calendar. Returns the number of events removed.
+     */
+    public int removeEventsIf(Predicate<? super Event> filter) {
+        List<Event> removed = new ArrayList<>();
+        long stamp = lock.writeLock();
+        try {
+            for (Event e : state.getEventsList()) {
+                if (filter.test(e)) removed.add(e);
+            }
+            if (removed.isEmpty()) return 0;
+            removeEventsLocked(removed);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return removed.size();
+    }
+
+    // Called by Event to apply an edit under the write lock
+    void updateEvent(Event event, Runnable change) {
+        long stamp = lock.writeLock();
+        try {
+            LocalDate oldStart = event.getStartDate();
+            LocalDate oldEnd = event.getEndDate();
+            String oldName = event.getEventName();
+            EventIntervalTree events = state.eventTree();
+            boolean present = events.contains(event);
+            change.run();
+            if (present) {
+                reindexEvent(event, oldName);
+                if (!oldStart.equals(event.getStartDate()) || !oldEnd.equals(event.getEndDate())) {
+                    state = state.withEvents(events.remove(event, oldStart, oldEnd).add(event));
+                }
+                publish(CalendarChange.eventEdited(event, oldStart, oldEnd));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Events ordered by start date; a view of the current snapshot, not a copy
     public List<Event> getEventsList() {
-        return Collections.unmodifiableList(eventsList);
+        return state.getEventsList();
     }
 
+    // Next page of getEventsList after the cursor (null for the first page)
+    public KeysetPage<Event, EventKey> eventsAfter(EventKey cursor, int limit) {
+        return state.eventsAfter(cursor, limit);
+    }
+
+    // Read-only; served from the day cache when the date was queried recently
     public List<Event> getEventsOn(LocalDate date) {
-        List<Event> result = new ArrayList<>();
-        for (Event event : eventsList) {
-            if (event.occursOn(date)) {
-                result.add(event);
-            }
+        return cachedDay(date).events;
+    }
+
+    // Visit the events covering the date without allocating a list
+    public void forEachEventOn(LocalDate date, Consumer<? super Event> action) {
+        state.forEachEventOn(date, action);
+    }
+
+    public int countEventsOn(LocalDate date) {
+        return state.countEventsOn(date);
+    }
+
+    // Events overlapping the inclusive range [from, to], ordered by start date
+    public List<Event> getEventsBetween(LocalDate from, LocalDate to) {
+        return state.getEventsBetween(from, to);
+    }
+
+    /**
+     * Collect tasks and events for every day in [from, to] (inclusive) in one pass
+     * over each index, so a whole week or month view needs a single query.
+     */
+    public CalendarWindow getWindow(LocalDate from, LocalDate to) {
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        if (days <= 0 || days > WINDOW_FROM_CACHE_DAYS) return state.getWindow(from, to);
+        // Week and month views: reuse cached days, so re-rendering an unchanged range is cheap
+        List<List<Task>> tasks = new ArrayList<>((int) days);
+        List<List<Event>> events = new ArrayList<>((int) days);
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            DayCache.Day day = cachedDay(d);
+            tasks.add(day.tasks);
+            events.add(day.events);
         }
-        return Collections.unmodifiableList(result);
+        return new CalendarWindow(from, to, tasks, events);
+    }
+
+    // Hit/miss counters and size of the per-day query cache
+    public DayCache getDayCache() {
+        return dayCache;
+    }
+
+    private DayCache.Day cachedDay(LocalDate date) {
+        DayCache.Day day = dayCache.get(date);
+        if (day != null) return day;
+        CalendarSnapshot s = state;
+        // The task list is a view of the immutable snapshot, so it is cached without copying
+        day = new DayCache.Day(s.getTasksOn(date), s.getEventsOn(date));
+        dayCache.put(date, day, () -> state == s);
+        return day;
     }
 
     public void showEventsOn(LocalDate date) {
@@ -144,14 +1040,43 @@ public class MyCalendar {
         }
     }
 
+    /**
+     * Up to limit runs of at least length consecutive days in [from, until] with no events
+     * and at most maxTasksPerDay tasks due, earliest first.
+     */
+    public List<FreeDayFinder.Window> findFreeWindows(LocalDate from, LocalDate until, int length,
+                                                      int maxTasksPerDay, int limit) {
+        return FreeDayFinder.findWindows(state, from, until, length, maxTasksPerDay, limit);
+    }
+
+    // The next count days from 'from' (up to 'until') with no events and at most maxTasksPerDay tasks
+    public List<LocalDate> findFreeDays(LocalDate from, LocalDate until, int maxTasksPerDay, int count) {
+        return FreeDayFinder.findDays(state, from, until, maxTasksPerDay, count);
+    }
+
+    // Every pair of overlapping events, found in one sweep over the current snapshot
+    public List<EventConflicts.Conflict> getEventConflicts() {
+        return EventConflicts.findAll(state);
+    }
+
+    // Events overlapping the given one (which need not be in this calendar yet)
+    public List<EventConflicts.Conflict> getConflictsWith(Event event) {
+        return EventConflicts.findWith(state, event);
+    }
+
+    public void showEventConflicts() {
+        System.out.println(EventConflicts.report(getEventConflicts()));
+    }
+
     // Simple persistence helpers (moved from DSSave)
+    // One line per task: id, URL-encoded name and due date, tab separated
     public void saveTasksToFile(String filename) throws IOException {
         Path path = Paths.get(filename);
         List<String> lines = new ArrayList<>();
-        for (Task t : tasksList) {
+        for (Task t : getTasksList()) {
             String nameEnc = URLEncoder.encode(t.getTaskName(), StandardCharsets.UTF_8.toString());
             String date = t.getDueDate().toString();
-            lines.add(nameEnc + "\t" + date);
+            lines.add(t.getId() + "\t" + nameEnc + "\t" + date);
         }
         Files.write(path, lines, StandardCharsets.UTF_8);
     }
@@ -160,15 +1085,129 @@ public class MyCalendar {
         Path path = Paths.get(filename);
         if (!Files.exists(path)) return;
         List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
-        tasksList.clear();
+        long savedBefore = ValuePool.getSavedBytes();
+        // Parse outside the lock so readers are only blocked while the index is swapped
+        List<Task> loaded = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
         for (String line : lines) {
             if (line == null || line.trim().isEmpty()) continue;
-            String[] parts = line.split("\t", 2);
-            if (parts.length != 2) continue;
-            String name = URLDecoder.decode(parts[0], StandardCharsets.UTF_8.toString());
-            LocalDate date = LocalDate.parse(parts[1]);
-            tasksList.add(new Task(name, date));
+            String[] parts = line.split("\t", 3);
+            if (parts.length == 3) {
+                long id;
+                try {
+                    id = Long.parseLong(parts[0]);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                String name = URLDecoder.decode(parts[1], StandardCharsets.UTF_8.toString());
+                LocalDate date = LocalDate.parse(parts[2]);
+                // A repeated id (e.g. a hand-merged file) gets a fresh one
+                loaded.add(seenIds.add(id) ? new Task(id, name, date) : new Task(name, date));
+            } else if (parts.length == 2) {
+                // Files written before ids were saved: name and date only
+                String name = URLDecoder.decode(parts[0], StandardCharsets.UTF_8.toString());
+                LocalDate date = LocalDate.parse(parts[1]);
+                loaded.add(new Task(name, date));
+            }
+        }
+        long stamp = lock.writeLock();
+        try {
+            List<CalendarChange> changes = new ArrayList<>();
+            replaceTasksLocked(loaded, changes);
+            publishAll(changes);
+            // Drop anything already past due in the imported file
+            removeExpiredLocked();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        reportLoad(loaded.size(), "task(s)", savedBefore);
+    }
+
+    // Tasks and Events share repeated names and dates through ValuePool; say how much that saved
+    private static void reportLoad(int count, String what, long savedBefore) {
+        long saved = ValuePool.getSavedBytes() - savedBefore;
+        System.out.println("Loaded " + count + " " + what + "; shared names and dates saved about " + (saved / 1024) + " KB");
+    }
+
+    /**
+     * Write every task and event to a binary store that MappedCalendarStore can map
+     * instead of parse. Unlike saveTasksToFile this keeps priorities, descriptions,
+     * completion and events.
+     */
+    public void saveMappedFile(String filename) throws IOException {
+        MappedCalendarStore.write(filename, state);
+    }
+
+    /**
+     * Map a store written by saveMappedFile and attach it as a read-only archive beside
+     * the live calendar. Nothing is decoded here: the getMapped... queries binary-search
+     * the mapping and create Tasks/Events only for the rows they return, as detached
+     * copies. Live tasks and events are not touched. Replaces any store already attached.
+     */
+    public void openMappedFile(String filename) throws IOException {
+        MappedCalendarStore store = MappedCalendarStore.open(filename);
+        mappedStore = store;
+        System.out.println("Mapped " + store.getTaskCount() + " task(s) and " + store.getEventCount()
+                + " event(s); " + (store.getMappedBytes() / 1024) + " KB kept off the Java heap");
+    }
+
+    // Detach the store opened by openMappedFile; the mapping is released once unreachable
+    public void closeMappedFile() {
+        mappedStore = null;
+    }
+
+    // Store attached by openMappedFile, or null
+    public MappedCalendarStore getMappedStore() {
+        return mappedStore;
+    }
+
+    // Archived tasks due on the date, in calendar order; empty when no store is attached
+    public List<Task> getMappedTasksOn(LocalDate date) {
+        MappedCalendarStore store = mappedStore;
+        return store == null ? Collections.emptyList() : store.getTasksOn(date);
+    }
+
+    // Archived tasks due in [from, to] (inclusive), in calendar order
+    public List<Task> getMappedTasksBetween(LocalDate from, LocalDate to) {
+        MappedCalendarStore store = mappedStore;
+        return store == null ? Collections.emptyList() : store.getTasksBetween(from, to);
+    }
+
+    // Counted from row positions alone; no task is decoded
+    public int countMappedTasksOn(LocalDate date) {
+        MappedCalendarStore store = mappedStore;
+        return store == null ? 0 : store.countTasksOn(date);
+    }
+
+    public List<Event> getMappedEventsOn(LocalDate date) {
+        MappedCalendarStore store = mappedStore;
+        return store == null ? Collections.emptyList() : store.getEventsOn(date);
+    }
+
+    // Archived events overlapping [from, to] (inclusive), ordered by start date
+    public List<Event> getMappedEventsBetween(LocalDate from, LocalDate to) {
+        MappedCalendarStore store = mappedStore;
+        return store == null ? Collections.emptyList() : store.getEventsBetween(from, to);
+    }
+
+    // Caller must hold the write lock; swaps in a new task set and clears every task index
+    private void replaceTasksLocked(List<Task> loaded, List<CalendarChange> changes) {
+        for (Task t : state.getTasksList()) {
+            t.setCalendar(null);
+            changes.add(CalendarChange.taskRemoved(t, t.getDueDate()));
+        }
+        tasksById.clear();
+        tasksByName.clear();
+        taskText.clear();
+        taskNames.clear();
+        taskTrigrams.clear();
+        dependencies.clear();
+        for (Task task : loaded) {
+            task.setCalendar(this);
+            indexTask(task);
+            changes.add(CalendarChange.taskAdded(task));
         }
+        state = state.withTasks(putAll(PersistentSortedMap.empty(), loaded));
     }
 
     // Accessors for currentDate to support GUI month navigation
@@ -0,0 +1,247 @@
+/**
+ * NameTrie.java
+ *
+ * Radix tree of item names for prefix autocomplete.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Names are stored lower-cased along compressed edges (one node per branching point, not
+ * per character). Every node caches the best TOP names in its subtree, ranked by how many
+ * items currently use the name and then by how recently it was added, so a completion
+ * is a walk down the prefix plus a copy of that cache. Adding or removing a name only
+ * touches the caches on its own path, and adding stops at the first one it does not
+ * enter. Not thread-safe; MyCalendar keeps it under its lock.
+ */
+public final class NameTrie {
+
+    // Completions cached per node; also the most complete() will return
+    public static final int TOP = 10;
+
+    private static final class Node {
+        String edge;
+        Node parent;
+        // Sorted by the first character of their edge
+        final List<Node> children = new ArrayList<>(2);
+        // Spelling last added under this key, or null if no item uses it
+        String display;
+        int count;
+        long stamp;
+        Node[] top = new Node[0];
+
+        Node(String edge, Node parent) {
+            this.edge = edge;
+            this.parent = parent;
+        }
+    }
+
+    private final Node root = new Node("", null);
+    private long clock;
+    private int size;
+
+    // Number of distinct names (ignoring case)
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root.children.clear();
+        root.top = new Node[0];
+        size = 0;
+    }
+
+    // Record one more item using the name; it becomes the most recent spelling
+    public void add(String name) {
+        if (name == null || name.isEmpty()) return;
+        Node n = insert(key(name));
+        if (n.count++ == 0) size++;
+        n.display = name;
+        n.stamp = ++clock;
+        promote(n);
+    }
+
+    // Record one fewer item using the name
+    public void remove(String name) {
+        if (name == null || name.isEmpty()) return;
+        Node n = find(key(name));
+        if (n == null || n.count == 0) return;
+        if (--n.count > 0) {
+            refreshUp(n, n);
+            return;
+        }
+        size--;
+        n.display = null;
+        refreshUp(prune(n), n);
+    }
+
+    /**
+     * Up to limit (at most TOP) names starting with the prefix, ignoring case: most used
+     * first, then most recently added.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String k = key(prefix == null ? "" : prefix);
+        Node n = root;
+        int i = 0;
+        while (i < k.length()) {
+            Node child = child(n, k.charAt(i));
+            if (child == null) return Collections.emptyList();
+            int common = commonPrefix(child.edge, k, i);
+            // The prefix may end part way along an edge; that subtree still matches
+            if (common < child.edge.length() && i + common < k.length()) return Collections.emptyList();
+            i += common;
+            n = child;
+        }
+        int count = Math.min(Math.min(limit, TOP), n.top.length);
+        List<String> result = new ArrayList<>(count);
+        for (int j = 0; j < count; j++) {
+            result.add(n.top[j].display);
+        }
+        return result;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private Node find(String k) {
+        Node n = root;
+        int i = 0;
+        while (i < k.length()) {
+            Node child = child(n, k.charAt(i));
+            if (child == null || !k.startsWith(child.edge, i)) return null;
+            i += child.edge.length();
+            n = child;
+        }
+        return n;
+    }
+
+    // Node for the key, splitting an edge or adding a leaf if needed
+    private Node insert(String k) {
+        Node n = root;
+        int i = 0;
+        while (i < k.length()) {
+            Node child = child(n, k.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(k.substring(i), n);
+                addChild(n, leaf);
+                return leaf;
+            }
+            int common = commonPrefix(child.edge, k, i);
+            if (common < child.edge.length()) {
+                // Split the edge at the point where the key diverges
+                Node mid = new Node(child.edge.substring(0, common), n);
+                replaceChild(n, child, mid);
+                child.edge = child.edge.substring(common);
+                child.parent = mid;
+                addChild(mid, child);
+                mid.top = child.top;
+                n = mid;
+            } else {
+                n = child;
+            }
+            i += common;
+        }
+        return n;
+    }
+
+    // Drop a node no item uses any more, keeping edges compressed; returns where to refresh from
+    private Node prune(Node n) {
+        if (n == root) return n;
+        if (n.children.isEmpty()) {
+            Node parent = n.parent;
+            parent.children.remove(n);
+            if (parent != root && parent.display == null && parent.children.size() == 1) {
+                mergeWithOnlyChild(parent);
+            }
+            return parent;
+        }
+        if (n.children.size() == 1) {
+            // The child's own subtree is unchanged; only caches above it listed n
+            mergeWithOnlyChild(n);
+            return n.parent;
+        }
+        return n;
+    }
+
+    // Replace an unused node that has a single child by that child, joining their edges
+    private void mergeWithOnlyChild(Node n) {
+        Node child = n.children.get(0);
+        child.edge = n.edge + child.edge;
+        child.parent = n.parent;
+        replaceChild(n.parent, n, child);
+    }
+
+    // n just ranked higher: move it up (or into) each ancestor's cache, stopping at the
+    // first one it does not make, since no ancestor above can include it either
+    private static void promote(Node n) {
+        for (Node a = n; a != null; a = a.parent) {
+            List<Node> top = new ArrayList<>(Arrays.asList(a.top));
+            top.remove(n);
+            int at = 0;
+            while (at < top.size() && rank(top.get(at), n) < 0) at++;
+            if (at >= TOP) return;
+            top.add(at, n);
+            if (top.size() > TOP) top.remove(TOP);
+            a.top = top.toArray(new Node[0]);
+        }
+    }
+
+    // changed just ranked lower or went away: rebuild caches from `from` upwards until one
+    // comes out the same and never listed it
+    private static void refreshUp(Node from, Node changed) {
+        for (Node a = from; a != null; a = a.parent) {
+            Node[] old = a.top;
+            List<Node> candidates = new ArrayList<>();
+            if (a.display != null) candidates.add(a);
+            for (Node c : a.children) {
+                Collections.addAll(candidates, c.top);
+            }
+            candidates.sort(NameTrie::rank);
+            a.top = candidates.subList(0, Math.min(TOP, candidates.size())).toArray(new Node[0]);
+            if (!Arrays.asList(old).contains(changed) && Arrays.equals(old, a.top)) return;
+        }
+    }
+
+    private static int rank(Node a, Node b) {
+        if (a.count != b.count) return Integer.compare(b.count, a.count);
+        return Long.compare(b.stamp, a.stamp);
+    }
+
+    private static int commonPrefix(String edge, String k, int from) {
+        int max = Math.min(edge.length(), k.length() - from);
+        int i = 0;
+        while (i < max && edge.charAt(i) == k.charAt(from + i)) i++;
+        return i;
+    }
+
+    private static Node child(Node n, char c) {
+        int i = search(n.children, c);
+        return i >= 0 ? n.children.get(i) : null;
+    }
+
+    private static void addChild(Node n, Node child) {
+        int i = search(n.children, child.edge.charAt(0));
+        n.children.add(-i - 1, child);
+    }
+
+    private static void replaceChild(Node n, Node old, Node replacement) {
+        n.children.set(n.children.indexOf(old), replacement);
+    }
+
+    // Binary search on first edge characters; returns (-(insertion point) - 1) if absent
+    private static int search(List<Node> children, char c) {
+        int lo = 0, hi = children.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = children.get(mid).edge.charAt(0);
+            if (m < c) lo = mid + 1;
+            else if (m > c) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+}
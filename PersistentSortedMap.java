@@ -0,0 +1,415 @@
+/**
+ * PersistentSortedMap.java
+ *
+ * Immutable sorted map with structural sharing between versions.
+ */
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * Size-augmented AVL tree whose nodes are never modified. put and remove return a new
+ * map in O(log n) that shares every untouched subtree with the old one, so any number
+ * of versions can be held at once for the cost of the paths that differ. Because every
+ * node knows its subtree size, positional access and range counts are O(log n) too.
+ */
+public final class PersistentSortedMap<K extends Comparable<K>, V> {
+
+    private static final PersistentSortedMap<?, ?> EMPTY = new PersistentSortedMap<>(null);
+
+    private final Node<K, V> root;
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int height;
+        final int size;
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+
+        Node<K, V> with(Node<K, V> newLeft, Node<K, V> newRight) {
+            return new Node<>(key, value, newLeft, newRight);
+        }
+    }
+
+    private PersistentSortedMap(Node<K, V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K extends Comparable<K>, V> PersistentSortedMap<K, V> empty() {
+        return (PersistentSortedMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Map holding keys.get(i) -> values.get(i), built balanced in O(n) rather than by n
+     * inserts. The keys must be strictly ascending.
+     */
+    public static <K extends Comparable<K>, V> PersistentSortedMap<K, V> ofSorted(List<? extends K> keys, List<? extends V> values) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("Expected as many values as keys.");
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            if (keys.get(i - 1).compareTo(keys.get(i)) >= 0) {
+                throw new IllegalArgumentException("Keys must be strictly ascending.");
+            }
+        }
+        if (keys.isEmpty()) return empty();
+        return new PersistentSortedMap<>(build(keys, values, 0, keys.size()));
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public V get(K key) {
+        Node<K, V> n = root;
+        while (n != null) {
+            int c = key.compareTo(n.key);
+            if (c == 0) return n.value;
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    // New map with the key bound to value (replacing any existing binding)
+    public PersistentSortedMap<K, V> put(K key, V value) {
+        return new PersistentSortedMap<>(insert(root, key, value));
+    }
+
+    // New map without the key; returns this map if the key is absent
+    public PersistentSortedMap<K, V> remove(K key) {
+        if (!containsKey(key)) return this;
+        return new PersistentSortedMap<>(delete(root, key));
+    }
+
+    // Number of keys strictly less than the given key
+    public int rank(K key) {
+        int rank = 0;
+        Node<K, V> n = root;
+        while (n != null) {
+            if (key.compareTo(n.key) <= 0) {
+                n = n.left;
+            } else {
+                rank += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return rank;
+    }
+
+    // Number of keys in [fromInclusive, toExclusive)
+    public int countInRange(K fromInclusive, K toExclusive) {
+        return Math.max(0, rank(toExclusive) - rank(fromInclusive));
+    }
+
+    // Value at the given position in key order
+    public V getAt(int index) {
+        return nodeAt(index).value;
+    }
+
+    // Key at the given position in key order
+    public K keyAt(int index) {
+        return nodeAt(index).key;
+    }
+
+    private Node<K, V> nodeAt(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index);
+        Node<K, V> n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index == leftSize) {
+                return n;
+            } else {
+                index -= leftSize + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    // Visit values with keys in [fromInclusive, toExclusive) in key order; null bounds are open
+    public void forEachInRange(K fromInclusive, K toExclusive, Consumer<? super V> action) {
+        forEachInRange(root, fromInclusive, toExclusive, action);
+    }
+
+    // Values with keys in [fromInclusive, toExclusive) in key order; null bounds are open
+    public Iterator<V> iterator(K fromInclusive, K toExclusive) {
+        return new RangeIterator<>(root, fromInclusive, toExclusive);
+    }
+
+    // Read-only list view of the values in key order; no copy is made
+    public List<V> values() {
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index) {
+                return getAt(index);
+            }
+
+            @Override
+            public int size() {
+                return PersistentSortedMap.this.size();
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return PersistentSortedMap.this.iterator(null, null);
+            }
+        };
+    }
+
+    /**
+     * Visit entries with keys strictly greater than afterExclusive (all entries if it is
+     * null) in key order, until the action returns false. O(log n) to find the start,
+     * then O(1) amortized per entry, so a page costs the same anywhere in the map.
+     */
+    public void forEachAfter(K afterExclusive, BiPredicate<? super K, ? super V> action) {
+        ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+        Node<K, V> n = root;
+        while (n != null) {
+            if (afterExclusive == null || n.key.compareTo(afterExclusive) > 0) {
+                stack.push(n);
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        while (!stack.isEmpty()) {
+            Node<K, V> next = stack.pop();
+            if (!action.test(next.key, next.value)) return;
+            for (Node<K, V> c = next.right; c != null; c = c.left) {
+                stack.push(c);
+            }
+        }
+    }
+
+    // Read-only list view of the values with keys in [fromInclusive, toExclusive); no copy is made
+    public List<V> valuesInRange(K fromInclusive, K toExclusive) {
+        int offset = rank(fromInclusive);
+        int size = Math.max(0, rank(toExclusive) - offset);
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index) {
+                if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index);
+                return getAt(offset + index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return size == 0 ? Collections.emptyIterator() : PersistentSortedMap.this.iterator(fromInclusive, toExclusive);
+            }
+        };
+    }
+
+    /**
+     * Spliterator over the values in key order. It splits by position using the subtree
+     * sizes, so parallel streams get evenly sized halves of the map without copying it.
+     */
+    public Spliterator<V> spliterator() {
+        return new RankSpliterator<>(root, 0, size());
+    }
+
+    // Values with positions in [lo, hi); walks in order from lo once traversal starts
+    private static final class RankSpliterator<K extends Comparable<K>, V> implements Spliterator<V> {
+        // Below this many values, splitting further costs more than it saves
+        private static final int MIN_SPLIT = 1024;
+
+        private final Node<K, V> root;
+        private int lo;
+        private final int hi;
+        private ArrayDeque<Node<K, V>> stack;
+
+        RankSpliterator(Node<K, V> root, int lo, int hi) {
+            this.root = root;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            if (stack != null || hi - lo < 2 * MIN_SPLIT) return null;
+            int mid = (lo + hi) >>> 1;
+            Spliterator<V> prefix = new RankSpliterator<>(root, lo, mid);
+            lo = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            if (lo >= hi) return false;
+            if (stack == null) seek();
+            Node<K, V> n = stack.pop();
+            for (Node<K, V> c = n.right; c != null; c = c.left) {
+                stack.push(c);
+            }
+            lo++;
+            action.accept(n.value);
+            return true;
+        }
+
+        // Stack the path to position lo so that popping yields it first
+        private void seek() {
+            stack = new ArrayDeque<>();
+            int k = lo;
+            Node<K, V> n = root;
+            while (n != null) {
+                int leftSize = size(n.left);
+                if (k < leftSize) {
+                    stack.push(n);
+                    n = n.left;
+                } else if (k == leftSize) {
+                    stack.push(n);
+                    return;
+                } else {
+                    k -= leftSize + 1;
+                    n = n.right;
+                }
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return hi - lo;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+
+    private static <K extends Comparable<K>, V> void forEachInRange(Node<K, V> n, K from, K to, Consumer<? super V> action) {
+        while (n != null) {
+            boolean aboveFrom = from == null || n.key.compareTo(from) >= 0;
+            boolean belowTo = to == null || n.key.compareTo(to) < 0;
+            if (aboveFrom) forEachInRange(n.left, from, to, action);
+            if (aboveFrom && belowTo) action.accept(n.value);
+            if (!belowTo) return;
+            n = n.right;
+        }
+    }
+
+    private static final class RangeIterator<K extends Comparable<K>, V> implements Iterator<V> {
+        private final ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+        private final K to;
+
+        RangeIterator(Node<K, V> root, K from, K to) {
+            this.to = to;
+            // Descend to the first key >= from, remembering every node we pass on its left
+            Node<K, V> n = root;
+            while (n != null) {
+                if (from == null || n.key.compareTo(from) >= 0) {
+                    stack.push(n);
+                    n = n.left;
+                } else {
+                    n = n.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            Node<K, V> next = stack.peek();
+            return next != null && (to == null || next.key.compareTo(to) < 0);
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<K, V> n = stack.pop();
+            for (Node<K, V> c = n.right; c != null; c = c.left) {
+                stack.push(c);
+            }
+            return n.value;
+        }
+    }
+
+    // Perfectly balanced subtree over [lo, hi), which is a valid AVL tree
+    private static <K, V> Node<K, V> build(List<? extends K> keys, List<? extends V> values, int lo, int hi) {
+        if (lo >= hi) return null;
+        int mid = (lo + hi) >>> 1;
+        return new Node<>(keys.get(mid), values.get(mid), build(keys, values, lo, mid), build(keys, values, mid + 1, hi));
+    }
+
+    private static int height(Node<?, ?> n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static int size(Node<?, ?> n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static <K extends Comparable<K>, V> Node<K, V> insert(Node<K, V> n, K key, V value) {
+        if (n == null) return new Node<>(key, value, null, null);
+        int c = key.compareTo(n.key);
+        if (c == 0) return new Node<>(key, value, n.left, n.right);
+        if (c < 0) return balance(n.with(insert(n.left, key, value), n.right));
+        return balance(n.with(n.left, insert(n.right, key, value)));
+    }
+
+    private static <K extends Comparable<K>, V> Node<K, V> delete(Node<K, V> n, K key) {
+        if (n == null) return null;
+        int c = key.compareTo(n.key);
+        if (c < 0) return balance(n.with(delete(n.left, key), n.right));
+        if (c > 0) return balance(n.with(n.left, delete(n.right, key)));
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        Node<K, V> successor = n.right;
+        while (successor.left != null) successor = successor.left;
+        return balance(successor.with(n.left, delete(n.right, successor.key)));
+    }
+
+    private static <K, V> Node<K, V> balance(Node<K, V> n) {
+        int bf = height(n.left) - height(n.right);
+        if (bf > 1) {
+            Node<K, V> l = n.left;
+            if (height(l.left) < height(l.right)) l = rotateLeft(l);
+            return rotateRight(n.with(l, n.right));
+        }
+        if (bf < -1) {
+            Node<K, V> r = n.right;
+            if (height(r.right) < height(r.left)) r = rotateRight(r);
+            return rotateLeft(n.with(n.left, r));
+        }
+        return n;
+    }
+
+    private static <K, V> Node<K, V> rotateRight(Node<K, V> n) {
+        Node<K, V> l = n.left;
+        return l.with(l.left, n.with(l.right, n.right));
+    }
+
+    private static <K, V> Node<K, V> rotateLeft(Node<K, V> n) {
+        Node<K, V> r = n.right;
+        return r.with(n.with(n.left, r.left), r.right);
+    }
+}
@@ -5,14 +5,22 @@
  */
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Task {
-    private String taskName;
-    private LocalDate dueDate;
-    private boolean isCompleted;
-    private LocalDate completionDate;
-    private TaskPriority priority;
-    private String description;
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    // Stable identity: unique per run and saved with the task so it survives reloads
+    private final long id;
+    // Volatile so alarm and loader threads see edits made on the EDT
+    private volatile String taskName;
+    private volatile LocalDate dueDate;
+    private volatile boolean isCompleted;
+    private volatile LocalDate completionDate;
+    private volatile TaskPriority priority;
+    private volatile String description;
+    // Owning calendar, which applies edits so its indexes and listeners stay current
+    private volatile MyCalendar calendar;
 
     // Priority enum
     public enum TaskPriority {
@@ -29,27 +37,50 @@ public class Task {
         }
     }
 
+    // Next unused task id, for stores that keep tasks without constructing them
+    static long newId() {
+        return NEXT_ID.getAndIncrement();
+    }
+
     // Constructor with basic info
     public Task(String taskName, LocalDate dueDate) {
-        this.taskName = taskName;
-        this.dueDate = dueDate;
-        this.isCompleted = false;
-        this.completionDate = null;
-        this.priority = TaskPriority.MEDIUM;
-        this.description = "";
+        this(NEXT_ID.getAndIncrement(), taskName, dueDate);
+    }
+
+    // Constructor for a task read back from a save file, keeping its saved id
+    Task(long id, String taskName, LocalDate dueDate) {
+        this(id, taskName, dueDate, TaskPriority.MEDIUM, "", null);
+    }
+
+    // Constructor restoring every field of a stored task, including its id and completion
+    Task(long id, String taskName, LocalDate dueDate, TaskPriority priority, String description, LocalDate completionDate) {
+        this.id = id;
+        // Ids handed out later must not collide with restored ones
+        NEXT_ID.accumulateAndGet(id + 1, Math::max);
+        this.taskName = ValuePool.name(taskName);
+        this.dueDate = ValuePool.date(dueDate);
+        this.isCompleted = completionDate != null;
+        this.completionDate = ValuePool.date(completionDate);
+        this.priority = priority;
+        this.description = ValuePool.description(description);
     }
 
     // Constructor with all info
     public Task(String taskName, LocalDate dueDate, TaskPriority priority, String description) {
-        this.taskName = taskName;
-        this.dueDate = dueDate;
+        this.id = NEXT_ID.getAndIncrement();
+        this.taskName = ValuePool.name(taskName);
+        this.dueDate = ValuePool.date(dueDate);
         this.isCompleted = false;
         this.completionDate = null;
         this.priority = priority;
-        this.description = description;
+        this.description = ValuePool.description(description);
     }
 
     // Getters
+    public long getId() {
+        return id;
+    }
+
     public String getTaskName() {
         return taskName;
     }
@@ -76,31 +107,39 @@ public class Task {
 
     // Setters
     public void setTaskName(String n) {
-        this.taskName = n;
+        String shared = ValuePool.name(n);
+        applyChange(() -> this.taskName = shared);
     }
 
     public void setdueDate(LocalDate d) {
-        this.dueDate = d;
+        LocalDate shared = ValuePool.date(d);
+        applyChange(() -> this.dueDate = shared);
     }
 
     public void setPriority(TaskPriority priority) {
-        this.priority = priority;
+        applyChange(() -> this.priority = priority);
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        String shared = ValuePool.description(description);
+        applyChange(() -> this.description = shared);
     }
 
     // Mark task as completed
     public void markCompleted() {
-        this.isCompleted = true;
-        this.completionDate = LocalDate.now();
+        LocalDate today = ValuePool.date(today());
+        applyChange(() -> {
+            this.isCompleted = true;
+            this.completionDate = today;
+        });
     }
 
     // Mark task as incomplete
     public void markIncomplete() {
-        this.isCompleted = false;
-        this.completionDate = null;
+        applyChange(() -> {
+            this.isCompleted = false;
+            this.completionDate = null;
+        });
     }
 
     // Check if task is overdue
@@ -108,17 +147,17 @@ public class Task {
         if (isCompleted) {
             return false; // Completed tasks are not overdue
         }
-        return LocalDate.now().isAfter(dueDate);
+        return today().isAfter(dueDate);
     }
 
     // Check if task is due today
     public boolean isDueToday() {
-        return dueDate.isEqual(LocalDate.now());
+        return dueDate.isEqual(today());
     }
 
     // Get days until due
     public long daysUntilDue() {
-        return java.time.temporal.ChronoUnit.DAYS.between(LocalDate.now(), dueDate);
+        return java.time.temporal.ChronoUnit.DAYS.between(today(), dueDate);
     }
 
     // Get formatted due date string
@@ -163,17 +202,43 @@ public class Task {
 
     // Update task in order
     public void editTask(String newName, LocalDate newDueDate, TaskPriority newPriority, String newDescription) {
-        if (newName != null && !newName.isEmpty()) {
-            this.taskName = newName;
-        }
-        if (newDueDate != null) {
-            this.dueDate = newDueDate;
-        }
-        if (newPriority != null) {
-            this.priority = newPriority;
-        }
-        if (newDescription != null) {
-            this.description = newDescription;
+        String sharedName = ValuePool.name(newName);
+        LocalDate sharedDate = ValuePool.date(newDueDate);
+        String sharedDescription = ValuePool.description(newDescription);
+        applyChange(() -> {
+            if (sharedName != null && !sharedName.isEmpty()) {
+                this.taskName = sharedName;
+            }
+            if (sharedDate != null) {
+                this.dueDate = sharedDate;
+            }
+            if (newPriority != null) {
+                this.priority = newPriority;
+            }
+            if (sharedDescription != null) {
+                this.description = sharedDescription;
+            }
+        });
+    }
+
+    // Route edits through the owning calendar, if any, so it can reindex and notify listeners
+    private void applyChange(Runnable change) {
+        MyCalendar owner = calendar;
+        if (owner != null) {
+            owner.updateTask(this, change);
+        } else {
+            change.run();
         }
     }
+
+    // Set by MyCalendar when the task is added or removed
+    void setCalendar(MyCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    // Today on the owning calendar's clock, or on the default clock while in no calendar
+    private LocalDate today() {
+        MyCalendar owner = calendar;
+        return owner != null ? owner.getClock().getToday() : CalendarClock.today();
+    }
 }
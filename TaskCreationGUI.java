@@ -159,6 +159,8 @@ public class TaskCreationGUI extends JDialog {
         taskNameField = new JTextField(20);
         taskNameField.setToolTipText("Enter a short descriptive task name");
         styleTextField(taskNameField);
+        // Suggest names already in the calendar, most used first
+        AutoCompletePopup.install(taskNameField, prefix -> calendar.completeTaskName(prefix, 8));
         gbc.gridx = 1;
         gbc.gridy = 0;
         gbc.weightx = 1;
@@ -340,6 +342,7 @@ public class TaskCreationGUI extends JDialog {
 
         eventNameField = new JTextField(20);
         styleTextField(eventNameField);
+        AutoCompletePopup.install(eventNameField, prefix -> calendar.completeEventName(prefix, 8));
         gbc.gridx = 1;
         gbc.gridy = 0;
         gbc.weightx = 1;
@@ -573,7 +576,12 @@ public class TaskCreationGUI extends JDialog {
                 Event event = new Event(name, startDate, endDate, eventDesc);
                 calendar.addEvent(event);
                 itemCreated = true;
-                JOptionPane.showMessageDialog(this, "Event created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                List<EventConflicts.Conflict> conflicts = calendar.getConflictsWith(event);
+                if (conflicts.isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "Event created successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, conflictWarning(conflicts), "Overlapping Events", JOptionPane.WARNING_MESSAGE);
+                }
             }
             clearFields();
             dispose();
@@ -584,6 +592,17 @@ public class TaskCreationGUI extends JDialog {
         }
     }
 
+    // Event was still created; list the first few events it overlaps
+    private static String conflictWarning(List<EventConflicts.Conflict> conflicts) {
+        StringBuilder sb = new StringBuilder("Event created, but it overlaps " + conflicts.size() + " other event(s):");
+        int shown = Math.min(conflicts.size(), 5);
+        for (int i = 0; i < shown; i++) {
+            sb.append("\n- ").append(conflicts.get(i));
+        }
+        if (conflicts.size() > shown) sb.append("\n...and ").append(conflicts.size() - shown).append(" more");
+        return sb.toString();
+    }
+
     private void clearFields() {
         if (taskNameField != null) taskNameField.setText("");
         if (taskDueDateField != null) taskDueDateField.setText("");
@@ -661,7 +680,7 @@ public class TaskCreationGUI extends JDialog {
 
     // Open date picker for task due date
     private void openTaskDatePicker() {
-        LocalDate initialDate = LocalDate.now();
+        LocalDate initialDate = calendar.getClock().getToday();
         try {
             String currentText = taskDueDateField.getText().trim();
             if (!currentText.isEmpty()) {
@@ -679,7 +698,7 @@ public class TaskCreationGUI extends JDialog {
 
     // Open date picker for event start date
     private void openEventStartDatePicker() {
-        LocalDate initialDate = LocalDate.now();
+        LocalDate initialDate = calendar.getClock().getToday();
         try {
             String currentText = eventStartDateField.getText().trim();
             if (!currentText.isEmpty()) {
@@ -697,7 +716,7 @@ public class TaskCreationGUI extends JDialog {
 
     // Open date picker for event end date
     private void openEventEndDatePicker() {
-        LocalDate initialDate = LocalDate.now();
+        LocalDate initialDate = calendar.getClock().getToday();
         try {
             String currentText = eventEndDateField.getText().trim();
             if (!currentText.isEmpty()) {
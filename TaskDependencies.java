@@ -0,0 +1,315 @@
+/**
+ * TaskDependencies.java
+ *
+ * "Blocks" relationships between tasks, kept in topological order as they change.
+ */
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every task in the graph holds a position number, and a blocker always has a smaller
+ * number than the tasks it blocks. Adding an edge that already agrees with the order costs
+ * O(1). Otherwise only the tasks whose numbers lie between the two endpoints are searched
+ * (Pearce-Kelly): those reachable from the blocked task and those reaching the blocker,
+ * and the positions they already occupy are handed out again among them. If the forward
+ * search reaches the blocker, the edge would close a cycle and is refused without changing
+ * anything. Removing edges or tasks never invalidates the order.
+ *
+ * Not thread-safe; MyCalendar only touches it under its lock.
+ */
+public final class TaskDependencies {
+
+    private static final class Node {
+        final Task task;
+        int ord;
+        boolean visited;
+        final Set<Node> blocks = new HashSet<>();
+        final Set<Node> blockedBy = new HashSet<>();
+
+        Node(Task task, int ord) {
+            this.task = task;
+            this.ord = ord;
+        }
+    }
+
+    // Result of getCriticalPath(): the tightest chain and how many days it can slip
+    public static final class CriticalPath {
+        private final List<Task> tasks;
+        private final long slackDays;
+
+        CriticalPath(List<Task> tasks, long slackDays) {
+            this.tasks = tasks;
+            this.slackDays = slackDays;
+        }
+
+        // Blockers first; empty if no open task in the graph has a due date
+        public List<Task> getTasks() {
+            return tasks;
+        }
+
+        // Spare days along the chain; negative means it cannot be finished by its due dates
+        public long getSlackDays() {
+            return slackDays;
+        }
+    }
+
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private final LongMap<Node> nodes = new LongMap<>();
+    private int nextOrd;
+    private int edgeCount;
+
+    /**
+     * Record that blocker must be done before blocked. Returns false if the dependency
+     * already existed; throws IllegalArgumentException if it would create a cycle.
+     */
+    public boolean add(Task blocker, Task blocked) {
+        if (blocker == blocked) throw new IllegalArgumentException("A task cannot depend on itself.");
+        Node from = nodeFor(blocker);
+        Node to = nodeFor(blocked);
+        if (from.blocks.contains(to)) return false;
+        if (to.ord < from.ord) reorder(from, to);
+        from.blocks.add(to);
+        to.blockedBy.add(from);
+        edgeCount++;
+        return true;
+    }
+
+    public boolean remove(Task blocker, Task blocked) {
+        Node from = nodes.get(blocker.getId());
+        Node to = nodes.get(blocked.getId());
+        if (from == null || to == null || !from.blocks.remove(to)) return false;
+        to.blockedBy.remove(from);
+        edgeCount--;
+        dropIfIsolated(from);
+        dropIfIsolated(to);
+        return true;
+    }
+
+    // Forget a task and all of its dependencies
+    public void removeTask(long id) {
+        Node n = nodes.remove(id);
+        if (n == null) return;
+        for (Node m : n.blocks) {
+            m.blockedBy.remove(n);
+            dropIfIsolated(m);
+        }
+        for (Node m : n.blockedBy) {
+            m.blocks.remove(n);
+            dropIfIsolated(m);
+        }
+        edgeCount -= n.blocks.size() + n.blockedBy.size();
+    }
+
+    public void clear() {
+        nodes.clear();
+        nextOrd = 0;
+        edgeCount = 0;
+    }
+
+    public boolean contains(Task blocker, Task blocked) {
+        Node from = nodes.get(blocker.getId());
+        return from != null && from.blocks.contains(nodes.get(blocked.getId()));
+    }
+
+    // Tasks that must be done before this one, in topological order
+    public List<Task> getBlockers(Task task) {
+        Node n = nodes.get(task.getId());
+        return n == null ? Collections.emptyList() : tasksInOrder(n.blockedBy);
+    }
+
+    // Tasks waiting on this one, in topological order
+    public List<Task> getDependents(Task task) {
+        Node n = nodes.get(task.getId());
+        return n == null ? Collections.emptyList() : tasksInOrder(n.blocks);
+    }
+
+    // Every task that has a dependency, each after all of its blockers
+    public List<Task> getTopologicalOrder() {
+        return tasksInOrder(nodes.values());
+    }
+
+    public int getTaskCount() {
+        return nodes.size();
+    }
+
+    public int getDependencyCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Critical path with one day of work per open task, starting today. A task can finish
+     * no earlier than the day after its latest blocker, and must finish by its own due date
+     * and a day before any dependent has to. The slack of a task is the gap between the
+     * two; the critical path is the blocker-to-dependent chain with the least slack. One
+     * pass in topological order and one in reverse: O(tasks + dependencies).
+     */
+    public CriticalPath getCriticalPath(LocalDate today) {
+        List<Node> order = nodesInOrder(nodes.values());
+        int n = order.size();
+        long[] earliest = new long[n];
+        long[] latest = new long[n];
+        // Positions are local to this call: readers may run it concurrently
+        Map<Node, Integer> index = new IdentityHashMap<>(n * 2);
+        for (int i = 0; i < n; i++) index.put(order.get(i), i);
+
+        long first = today.toEpochDay();
+        for (int i = 0; i < n; i++) {
+            Node v = order.get(i);
+            if (v.task.isCompleted()) continue;
+            long e = first;
+            for (Node u : v.blockedBy) {
+                if (!u.task.isCompleted()) e = Math.max(e, earliest[index.get(u)] + 1);
+            }
+            earliest[i] = e;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            Node v = order.get(i);
+            if (v.task.isCompleted()) continue;
+            long l = v.task.getDueDate() != null ? v.task.getDueDate().toEpochDay() : UNBOUNDED;
+            for (Node w : v.blocks) {
+                int j = index.get(w);
+                if (!w.task.isCompleted() && latest[j] != UNBOUNDED) l = Math.min(l, latest[j] - 1);
+            }
+            latest[i] = l;
+        }
+
+        // The first least-slack task in topological order starts the chain: a tight
+        // blocker of it would have the same slack and come earlier
+        long minSlack = UNBOUNDED;
+        int head = -1;
+        for (int i = 0; i < n; i++) {
+            if (order.get(i).task.isCompleted() || latest[i] == UNBOUNDED) continue;
+            long slack = latest[i] - earliest[i];
+            if (slack < minSlack) {
+                minSlack = slack;
+                head = i;
+            }
+        }
+        if (head < 0) return new CriticalPath(Collections.emptyList(), 0);
+        // Follow dependents that finish the next day with the same slack
+        List<Task> path = new ArrayList<>();
+        path.add(order.get(head).task);
+        for (int cur = head; ; ) {
+            int next = -1;
+            for (Node w : order.get(cur).blocks) {
+                int j = index.get(w);
+                if (isTight(w, j, earliest, latest, minSlack) && earliest[j] == earliest[cur] + 1
+                        && (next < 0 || j < next)) {
+                    next = j;
+                }
+            }
+            if (next < 0) break;
+            path.add(order.get(next).task);
+            cur = next;
+        }
+        return new CriticalPath(Collections.unmodifiableList(path), minSlack);
+    }
+
+    private static boolean isTight(Node v, int i, long[] earliest, long[] latest, long minSlack) {
+        return !v.task.isCompleted() && latest[i] != UNBOUNDED && latest[i] - earliest[i] == minSlack;
+    }
+
+    private Node nodeFor(Task task) {
+        Node n = nodes.get(task.getId());
+        if (n == null) {
+            n = new Node(task, nextOrd++);
+            nodes.put(task.getId(), n);
+        }
+        return n;
+    }
+
+    private void dropIfIsolated(Node n) {
+        if (n.blocks.isEmpty() && n.blockedBy.isEmpty()) nodes.remove(n.task.getId());
+    }
+
+    /**
+     * Called when to.ord < from.ord. Finds the tasks reachable from 'to' with positions
+     * below from.ord and the tasks reaching 'from' with positions above to.ord, then lays
+     * them out again in the same set of positions: the second group first.
+     */
+    private void reorder(Node from, Node to) {
+        List<Node> forward = new ArrayList<>();
+        List<Node> backward = new ArrayList<>();
+        try {
+            if (!searchForward(to, from, forward)) {
+                throw new IllegalArgumentException("'" + from.task.getTaskName() + "' already depends on '"
+                    + to.task.getTaskName() + "'; this dependency would create a cycle.");
+            }
+            searchBackward(from, to.ord, backward);
+        } finally {
+            for (Node n : forward) n.visited = false;
+            for (Node n : backward) n.visited = false;
+        }
+        Comparator<Node> byOrd = Comparator.comparingInt(n -> n.ord);
+        forward.sort(byOrd);
+        backward.sort(byOrd);
+        int[] slots = new int[forward.size() + backward.size()];
+        int k = 0;
+        for (Node n : backward) slots[k++] = n.ord;
+        for (Node n : forward) slots[k++] = n.ord;
+        Arrays.sort(slots);
+        k = 0;
+        for (Node n : backward) n.ord = slots[k++];
+        for (Node n : forward) n.ord = slots[k++];
+    }
+
+    // Iterative, so long chains cannot overflow the stack; false if 'target' is reached
+    private static boolean searchForward(Node start, Node target, List<Node> found) {
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        start.visited = true;
+        found.add(start);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node n = stack.pop();
+            for (Node w : n.blocks) {
+                if (w == target) return false;
+                if (!w.visited && w.ord < target.ord) {
+                    w.visited = true;
+                    found.add(w);
+                    stack.push(w);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void searchBackward(Node start, int lowerBound, List<Node> found) {
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        start.visited = true;
+        found.add(start);
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node n = stack.pop();
+            for (Node u : n.blockedBy) {
+                if (!u.visited && u.ord > lowerBound) {
+                    u.visited = true;
+                    found.add(u);
+                    stack.push(u);
+                }
+            }
+        }
+    }
+
+    private static List<Node> nodesInOrder(Iterable<Node> source) {
+        List<Node> result = new ArrayList<>();
+        for (Node n : source) result.add(n);
+        result.sort(Comparator.comparingInt(n -> n.ord));
+        return result;
+    }
+
+    private static List<Task> tasksInOrder(Iterable<Node> source) {
+        List<Task> result = new ArrayList<>();
+        for (Node n : nodesInOrder(source)) result.add(n.task);
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -39,17 +39,34 @@ public class TaskGUI extends JFrame {
     private JPanel calendarPanel;
     private JLabel weekLabel;
     private LocalDate currentWeekStart;
+    private static final String[] DAY_NAMES = {"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
 
     // Constructor
     public TaskGUI() {
         calendar = new MyCalendar();
-        currentWeekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+        calendar.rollOverIfNeeded();
+        currentWeekStart = calendar.getClock().getToday().with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
         initializeFrame();
         createPanels();
         refreshCalendar();
+        // Patch just the affected day columns whenever tasks or events change
+        calendar.addChangeListener(this::patchCalendar);
+        // Drop expired tasks and move the "today" highlight once the date changes
+        calendar.getClock().addRolloverListener((previous, today) ->
+            SwingUtilities.invokeLater(this::onDateChanged));
         setVisible(true);
     }
 
+    // Expired tasks are removed once per day at midnight instead of on every read
+    private void onDateChanged() {
+        if (calendar.rollOverIfNeeded() > 0) {
+            if (tasksPageWindow != null && tasksPageWindow.isVisible()) tasksPageWindow.refresh();
+            if (combinedPageWindow != null && combinedPageWindow.isVisible()) combinedPageWindow.refresh();
+        }
+        if (calendarWindow != null) calendarWindow.refreshCalendar();
+        refreshCalendar();
+    }
+
     // (removed priority badge) tasks will be ordered by priority when displayed
 
     // Initialize the main frame
@@ -193,7 +210,7 @@ public class TaskGUI extends JFrame {
             if (tasksPageWindow == null) {
                 tasksPageWindow = new TasksPage(calendar);
             }
-            tasksPageWindow.refresh();
+            // Refreshes itself when shown
             tasksPageWindow.setVisible(true);
         });
         styleButton(showTasksPageButton, new Color(33, 150, 243));
@@ -205,7 +222,6 @@ public class TaskGUI extends JFrame {
             if (eventsPageWindow == null) {
                 eventsPageWindow = new EventsPage(calendar);
             }
-            eventsPageWindow.refresh();
             eventsPageWindow.setVisible(true);
         });
         styleButton(showEventsPageButton, new Color(33, 150, 243));
@@ -220,12 +236,9 @@ public class TaskGUI extends JFrame {
 
     // Open item creation dialog (task or event)
     private void openItemCreation() {
+        // The calendar change listener patches the week view once the item is added
         TaskCreationGUI dialog = new TaskCreationGUI(this, calendar);
         dialog.setVisible(true);
-        if (dialog.isItemCreated()) {
-            // Refresh calendar only (do not auto-open the Tasks/Events page)
-            refreshCalendar();
-        }
     }
 
     // Style buttons with colors
@@ -292,7 +305,6 @@ public class TaskGUI extends JFrame {
     // Display all tasks and events
     private void showAllItems() {
         if (combinedPageWindow == null) combinedPageWindow = new CombinedPage(calendar);
-        combinedPageWindow.refresh();
         combinedPageWindow.setVisible(true);
         // Also refresh legacy pages if open
         if (tasksPageWindow != null) tasksPageWindow.refresh();
@@ -301,7 +313,7 @@ public class TaskGUI extends JFrame {
 
     // Display all tasks (legacy - now use CombinedPage)
 
-    // Remove a task or event by name
+    // Remove one or more tasks or events picked from a list
     private void removeItem() {
         // Create a dialog with dropdown list for removal
         JDialog removeDialog = new JDialog(this, "Remove Item", true);
@@ -342,12 +354,15 @@ public class TaskGUI extends JFrame {
         // Item list
         JPanel listPanel = new JPanel(new BorderLayout(5, 5));
         listPanel.setBackground(ThemeManager.getPanelBackground());
-        JLabel listLabel = new JLabel("Select item to remove:");
+        JLabel listLabel = new JLabel("Select item(s) to remove (Ctrl/Shift-click for several):");
         listLabel.setFont(new Font("Arial", Font.PLAIN, 12));
         listLabel.setForeground(ThemeManager.getTextColor());
         
         DefaultListModel<String> listModel = new DefaultListModel<>();
+        // Ids of the tasks or events behind each row of listModel, in the same order
+        List<Long> listIds = new ArrayList<>();
         JList<String> itemList = new JList<>(listModel);
+        itemList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         itemList.setFont(new Font("Arial", Font.PLAIN, 12));
         itemList.setBackground(ThemeManager.getPanelBackground());
         itemList.setForeground(ThemeManager.getTextColor());
@@ -373,13 +388,16 @@ public class TaskGUI extends JFrame {
         // Update list based on type selection
         typeCombo.addActionListener(evt -> {
             listModel.clear();
+            listIds.clear();
             if (typeCombo.getSelectedItem().equals("Task")) {
                 for (Task task : calendar.getTasksList()) {
                     listModel.addElement(task.getTaskName());
+                    listIds.add(task.getId());
                 }
             } else {
                 for (Event event : calendar.getEventsList()) {
                     listModel.addElement(event.getEventName());
+                    listIds.add(event.getId());
                 }
             }
         });
@@ -408,28 +426,26 @@ public class TaskGUI extends JFrame {
                 return;
             }
             
-            String selectedItem = itemList.getSelectedValue();
+            // Remove by id in one bulk call, so duplicate names are never confused and
+            // the calendar reindexes only once
+            int[] selectedRows = itemList.getSelectedIndices();
+            List<Long> selectedIds = new ArrayList<>();
+            for (int row : selectedRows) {
+                selectedIds.add(listIds.get(row));
+            }
             if (typeCombo.getSelectedItem().equals("Task")) {
-                for (Task task : calendar.getTasksList()) {
-                    if (task.getTaskName().equals(selectedItem)) {
-                        calendar.removeTask(task);
-                        break;
-                    }
-                }
+                calendar.removeTasksById(selectedIds);
             } else {
-                for (Event event : calendar.getEventsList()) {
-                    if (event.getEventName().equals(selectedItem)) {
-                        calendar.removeEvent(event);
-                        break;
-                    }
-                }
+                calendar.removeEventsById(selectedIds);
             }
             
             // No sound: removed per user request
 
-            JOptionPane.showMessageDialog(removeDialog, selectedItem + " removed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            String removedText = selectedRows.length == 1
+                ? listModel.get(selectedRows[0])
+                : selectedRows.length + " items";
+            JOptionPane.showMessageDialog(removeDialog, removedText + " removed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             showAllItems();
-            refreshCalendar();
             removeDialog.dispose();
         });
         
@@ -532,113 +548,7 @@ public class TaskGUI extends JFrame {
         JPanel grid = new JPanel(new GridLayout(1, 7, 5, 5));
         grid.setBackground(new Color(245, 250, 255));
         grid.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-        
-        // Add day panels with expanded content
-        String[] dayNames = {"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
-        for (int i = 0; i < 7; i++) {
-            LocalDate currentDate = currentWeekStart.plusDays(i);
-            
-            JPanel dayPanel = new JPanel(new BorderLayout());
-            dayPanel.setBorder(BorderFactory.createLineBorder(new Color(150, 150, 150), 1));
-            dayPanel.setBackground(Color.WHITE);
-
-            // Date header
-            JPanel datePanel = new JPanel();
-            datePanel.setLayout(new BoxLayout(datePanel, BoxLayout.Y_AXIS));
-            datePanel.setOpaque(true);
-            
-                    JLabel dayNameLabel = new JLabel(dayNames[i], SwingConstants.CENTER);
-                    dayNameLabel.setFont(new Font("Arial", Font.BOLD, 16));
-            dayNameLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            
-            JLabel dateLabel = new JLabel(String.valueOf(currentDate.getDayOfMonth()), SwingConstants.CENTER);
-            // Make the date number larger for better readability
-            dateLabel.setFont(new Font("Arial", Font.BOLD, 16));
-            dateLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            
-            // Highlight today
-            if (currentDate.equals(LocalDate.now())) {
-                datePanel.setBackground(new Color(220, 240, 255));
-            } else {
-                datePanel.setBackground(new Color(240, 240, 240));
-            }
-            
-            datePanel.add(dayNameLabel);
-            datePanel.add(dateLabel);
-            datePanel.setBorder(BorderFactory.createEmptyBorder(3, 2, 3, 2));
-            dayPanel.add(datePanel, BorderLayout.NORTH);
-
-            // Content area for tasks and events
-            JPanel contentPanel = new JPanel();
-            contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
-            contentPanel.setBackground(Color.WHITE);
-            contentPanel.setBorder(BorderFactory.createEmptyBorder(4, 3, 4, 3));
-            
-            List<Task> tasks = new ArrayList<>(calendar.getTasksOn(currentDate));
-            // Tasks are already sorted by due date, then by priority in MyCalendar.getTasksOn()
-            List<Event> events = calendar.getEventsOn(currentDate);
-            
-            // Display tasks
-            if (!tasks.isEmpty()) {
-                for (Task t : tasks) {
-                    final Task taskRef = t;
-                    String name = t.getTaskName();
-                    if (name.length() > 12) {
-                        name = name.substring(0, 10) + "...";
-                    }
-                    JLabel taskLabel = new JLabel("- " + name);
-                    taskLabel.setFont(new Font("Arial", Font.PLAIN, 18));
-                    taskLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    taskLabel.setBorder(BorderFactory.createEmptyBorder(1, 2, 1, 1));
-                    taskLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                    taskLabel.addMouseListener(new java.awt.event.MouseAdapter() {
-                        @Override
-                        public void mouseClicked(java.awt.event.MouseEvent e) {
-                            DetailPage dp = new DetailPage(taskRef);
-                            dp.setVisible(true);
-                        }
-                    });
-                    contentPanel.add(taskLabel);
-                }
-            }
-            
-            // Display events
-            if (!events.isEmpty()) {
-                if (!tasks.isEmpty()) {
-                    contentPanel.add(Box.createVerticalStrut(1));
-                }
-                for (Event e : events) {
-                    final Event eventRef = e;
-                    String name = e.getEventName();
-                    if (name.length() > 12) {
-                        name = name.substring(0, 10) + "...";
-                    }
-                    
-                    JLabel eventLabel = new JLabel("- " + name);
-                    eventLabel.setFont(new Font("Arial", Font.PLAIN, 18));
-                    eventLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    eventLabel.setBorder(BorderFactory.createEmptyBorder(0, 2, 0, 1));
-                    eventLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                    eventLabel.addMouseListener(new java.awt.event.MouseAdapter() {
-                        @Override
-                        public void mouseClicked(java.awt.event.MouseEvent e) {
-                            DetailPage dp = new DetailPage(eventRef);
-                            dp.setVisible(true);
-                        }
-                    });
-                    contentPanel.add(eventLabel);
-                }
-            }
-            
-            contentPanel.add(Box.createVerticalGlue());
-            
-            JScrollPane scrollPane = new JScrollPane(contentPanel);
-            scrollPane.setBorder(BorderFactory.createEmptyBorder());
-            scrollPane.getVerticalScrollBar().setPreferredSize(new Dimension(4, 0));
-            dayPanel.add(scrollPane, BorderLayout.CENTER);
-
-            grid.add(dayPanel);
-        }
+        // Day panels are filled in by refreshCalendar()
 
         calendarPanel.add(grid, BorderLayout.CENTER);
     }
@@ -651,114 +561,150 @@ public class TaskGUI extends JFrame {
         JPanel grid = (JPanel) calendarPanel.getComponent(1);
         grid.removeAll();
         
-        String[] dayNames = {"Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"};
+        // One query for the whole week instead of two per day
+        CalendarWindow window = calendar.getWindow(currentWeekStart, currentWeekStart.plusDays(6));
         for (int i = 0; i < 7; i++) {
-            LocalDate currentDate = currentWeekStart.plusDays(i);
-            
-            JPanel dayPanel = new JPanel(new BorderLayout());
-            dayPanel.setBorder(BorderFactory.createLineBorder(new Color(150, 150, 150), 1));
-            dayPanel.setBackground(Color.WHITE);
-
-            // Date header
-            JPanel datePanel = new JPanel();
-            datePanel.setLayout(new BoxLayout(datePanel, BoxLayout.Y_AXIS));
-            datePanel.setOpaque(true);
-            
-                    JLabel dayNameLabel = new JLabel(dayNames[i], SwingConstants.CENTER);
-                    dayNameLabel.setFont(new Font("Arial", Font.BOLD, 16));
-            dayNameLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            
-            JLabel dateLabel = new JLabel(String.valueOf(currentDate.getDayOfMonth()), SwingConstants.CENTER);
-            // Make the date number larger for better readability
-            dateLabel.setFont(new Font("Arial", Font.BOLD, 16));
-            dateLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            
-            // Highlight today
-            if (currentDate.equals(LocalDate.now())) {
-                datePanel.setBackground(new Color(220, 240, 255));
-            } else {
-                datePanel.setBackground(new Color(240, 240, 240));
-            }
-            
-            datePanel.add(dayNameLabel);
-            datePanel.add(dateLabel);
-            datePanel.setBorder(BorderFactory.createEmptyBorder(3, 2, 3, 2));
-            dayPanel.add(datePanel, BorderLayout.NORTH);
-
-            // Content area
-            JPanel contentPanel = new JPanel();
-            contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
-            contentPanel.setBackground(Color.WHITE);
-            contentPanel.setBorder(BorderFactory.createEmptyBorder(4, 3, 4, 3));
-            
-            List<Task> tasks = new ArrayList<>(calendar.getTasksOn(currentDate));
-            // Tasks are already sorted by due date, then by priority in MyCalendar.getTasksOn()
-            List<Event> events = calendar.getEventsOn(currentDate);
-            
-            // Display tasks
-            if (!tasks.isEmpty()) {
-                for (Task t : tasks) {
-                    final Task taskRef = t;
-                    String name = t.getTaskName();
-                    if (name.length() > 12) {
-                        name = name.substring(0, 10) + "...";
-                    }
-                    JLabel taskLabel = new JLabel("- " + name);
-                    taskLabel.setFont(new Font("Arial", Font.PLAIN, 18));
-                    taskLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    taskLabel.setBorder(BorderFactory.createEmptyBorder(1, 2, 1, 1));
-                    taskLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                    taskLabel.addMouseListener(new java.awt.event.MouseAdapter() {
-                        @Override
-                        public void mouseClicked(java.awt.event.MouseEvent e) {
-                            DetailPage dp = new DetailPage(taskRef);
-                            dp.setVisible(true);
-                        }
-                    });
-                    contentPanel.add(taskLabel);
+            grid.add(buildDayPanel(i, window));
+        }
+        
+        grid.revalidate();
+        grid.repaint();
+    }
+
+    // Rebuild only the day columns touched by the changes instead of the whole week
+    private void patchCalendar(List<CalendarChange> changes, CalendarSnapshot snapshot) {
+        JPanel grid = (JPanel) calendarPanel.getComponent(1);
+        if (grid.getComponentCount() != 7) {
+            refreshCalendar();
+            return;
+        }
+        CalendarWindow window = null;
+        for (int i = 0; i < 7; i++) {
+            LocalDate day = currentWeekStart.plusDays(i);
+            boolean affected = false;
+            for (CalendarChange change : changes) {
+                if (change.affects(day)) {
+                    affected = true;
+                    break;
                 }
             }
-            
-            // Display events
-            if (!events.isEmpty()) {
-                if (!tasks.isEmpty()) {
-                    contentPanel.add(Box.createVerticalStrut(1));
+            if (!affected) continue;
+            if (window == null) {
+                window = calendar.getWindow(currentWeekStart, currentWeekStart.plusDays(6));
+            }
+            grid.remove(i);
+            grid.add(buildDayPanel(i, window), i);
+        }
+        if (window != null) {
+            grid.revalidate();
+            grid.repaint();
+        }
+    }
+
+    // Build the column for the i-th day of the current week
+    private JPanel buildDayPanel(int i, CalendarWindow window) {
+        LocalDate currentDate = currentWeekStart.plusDays(i);
+
+        JPanel dayPanel = new JPanel(new BorderLayout());
+        dayPanel.setBorder(BorderFactory.createLineBorder(new Color(150, 150, 150), 1));
+        dayPanel.setBackground(Color.WHITE);
+
+        // Date header
+        JPanel datePanel = new JPanel();
+        datePanel.setLayout(new BoxLayout(datePanel, BoxLayout.Y_AXIS));
+        datePanel.setOpaque(true);
+        
+        JLabel dayNameLabel = new JLabel(DAY_NAMES[i], SwingConstants.CENTER);
+        dayNameLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        dayNameLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        
+        JLabel dateLabel = new JLabel(String.valueOf(currentDate.getDayOfMonth()), SwingConstants.CENTER);
+        // Make the date number larger for better readability
+        dateLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        dateLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        
+        // Highlight today
+        if (currentDate.equals(calendar.getClock().getToday())) {
+            datePanel.setBackground(new Color(220, 240, 255));
+        } else {
+            datePanel.setBackground(new Color(240, 240, 240));
+        }
+        
+        datePanel.add(dayNameLabel);
+        datePanel.add(dateLabel);
+        datePanel.setBorder(BorderFactory.createEmptyBorder(3, 2, 3, 2));
+        dayPanel.add(datePanel, BorderLayout.NORTH);
+
+        // Content area
+        JPanel contentPanel = new JPanel();
+        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
+        contentPanel.setBackground(Color.WHITE);
+        contentPanel.setBorder(BorderFactory.createEmptyBorder(4, 3, 4, 3));
+        
+        List<Task> tasks = window.getTasksOn(currentDate);
+        // Tasks are already sorted by priority in each day's bucket
+        List<Event> events = window.getEventsOn(currentDate);
+        
+        // Display tasks
+        if (!tasks.isEmpty()) {
+            for (Task t : tasks) {
+                final Task taskRef = t;
+                String name = t.getTaskName();
+                if (name.length() > 12) {
+                    name = name.substring(0, 10) + "...";
                 }
-                for (Event e : events) {
-                    final Event eventRef = e;
-                    String name = e.getEventName();
-                    if (name.length() > 12) {
-                        name = name.substring(0, 10) + "...";
+                JLabel taskLabel = new JLabel("- " + name);
+                taskLabel.setFont(new Font("Arial", Font.PLAIN, 18));
+                taskLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+                taskLabel.setBorder(BorderFactory.createEmptyBorder(1, 2, 1, 1));
+                taskLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
+                taskLabel.addMouseListener(new java.awt.event.MouseAdapter() {
+                    @Override
+                    public void mouseClicked(java.awt.event.MouseEvent e) {
+                        DetailPage dp = new DetailPage(taskRef);
+                        dp.setVisible(true);
                     }
-                    
-                    JLabel eventLabel = new JLabel("- " + name);
-                    eventLabel.setFont(new Font("Arial", Font.PLAIN, 12));
-                    eventLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-                    eventLabel.setBorder(BorderFactory.createEmptyBorder(0, 2, 0, 1));
-                    eventLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                    eventLabel.addMouseListener(new java.awt.event.MouseAdapter() {
-                        @Override
-                        public void mouseClicked(java.awt.event.MouseEvent e) {
-                            DetailPage dp = new DetailPage(eventRef);
-                            dp.setVisible(true);
-                        }
-                    });
-                    contentPanel.add(eventLabel);
+                });
+                contentPanel.add(taskLabel);
+            }
+        }
+        
+        // Display events
+        if (!events.isEmpty()) {
+            if (!tasks.isEmpty()) {
+                contentPanel.add(Box.createVerticalStrut(1));
+            }
+            for (Event e : events) {
+                final Event eventRef = e;
+                String name = e.getEventName();
+                if (name.length() > 12) {
+                    name = name.substring(0, 10) + "...";
                 }
+                
+                JLabel eventLabel = new JLabel("- " + name);
+                eventLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+                eventLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+                eventLabel.setBorder(BorderFactory.createEmptyBorder(0, 2, 0, 1));
+                eventLabel.setCursor(new Cursor(Cursor.HAND_CURSOR));
+                eventLabel.addMouseListener(new java.awt.event.MouseAdapter() {
+                    @Override
+                    public void mouseClicked(java.awt.event.MouseEvent e) {
+                        DetailPage dp = new DetailPage(eventRef);
+                        dp.setVisible(true);
+                    }
+                });
+                contentPanel.add(eventLabel);
             }
-            
-            contentPanel.add(Box.createVerticalGlue());
-            
-            JScrollPane scrollPane = new JScrollPane(contentPanel);
-            scrollPane.setBorder(BorderFactory.createEmptyBorder());
-            scrollPane.getVerticalScrollBar().setPreferredSize(new Dimension(4, 0));
-            dayPanel.add(scrollPane, BorderLayout.CENTER);
-
-            grid.add(dayPanel);
         }
         
-        grid.revalidate();
-        grid.repaint();
+        contentPanel.add(Box.createVerticalGlue());
+        
+        JScrollPane scrollPane = new JScrollPane(contentPanel);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.getVerticalScrollBar().setPreferredSize(new Dimension(4, 0));
+        dayPanel.add(scrollPane, BorderLayout.CENTER);
+
+        return dayPanel;
     }
 
 
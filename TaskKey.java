@@ -0,0 +1,73 @@
+/**
+ * TaskKey.java
+ *
+ * Immutable sort key for tasks: due date, then priority (HIGH first), then task id.
+ */
+import java.time.LocalDate;
+
+public final class TaskKey implements Comparable<TaskKey> {
+    // Tasks without a due date sort after every dated task
+    private static final long NO_DATE = Long.MAX_VALUE;
+
+    private final long dueDay;
+    private final int priorityRank;
+    private final long id;
+
+    private TaskKey(long dueDay, int priorityRank, long id) {
+        this.dueDay = dueDay;
+        this.priorityRank = priorityRank;
+        this.id = id;
+    }
+
+    // Capture the task's current due date, priority and id
+    public static TaskKey of(Task task) {
+        long day = task.getDueDate() != null ? task.getDueDate().toEpochDay() : NO_DATE;
+        int rank = task.getPriority() != null ? task.getPriority().ordinal() : -1;
+        return new TaskKey(day, rank, task.getId());
+    }
+
+    // Smallest possible key on the given date (sorts before every task due that day)
+    public static TaskKey startOf(LocalDate date) {
+        return new TaskKey(date.toEpochDay(), Integer.MAX_VALUE, Long.MIN_VALUE);
+    }
+
+    public LocalDate getDueDate() {
+        return dueDay == NO_DATE ? null : LocalDate.ofEpochDay(dueDay);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    // Due date as an epoch day, or Long.MAX_VALUE for tasks without one
+    long getDueDay() {
+        return dueDay;
+    }
+
+    @Override
+    public int compareTo(TaskKey o) {
+        int c = Long.compare(dueDay, o.dueDay);
+        if (c != 0) return c;
+        // Higher priority first
+        c = Integer.compare(o.priorityRank, priorityRank);
+        if (c != 0) return c;
+        return Long.compare(id, o.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof TaskKey)) return false;
+        TaskKey k = (TaskKey) o;
+        return dueDay == k.dueDay && priorityRank == k.priorityRank && id == k.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(dueDay) * 31 * 31 + priorityRank * 31 + Long.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskKey[" + getDueDate() + ", " + priorityRank + ", " + id + "]";
+    }
+}
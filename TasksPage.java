@@ -5,7 +5,10 @@
  */
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 public class TasksPage extends JFrame {
@@ -15,6 +18,22 @@ public class TasksPage extends JFrame {
     // store references for theme updates
     private JPanel headerPanel;
     private JPanel mainPanel;
+    // Bubble shown for each task, so changes can patch single rows
+    private final Map<Task, Component> rows = new IdentityHashMap<>();
+    // Rows are loaded a page at a time; cursor is the sort key of the last loaded task
+    private static final int PAGE_SIZE = 100;
+    private TaskKey cursor;
+    private boolean hasMore;
+    private final Random rnd = new Random();
+    private int prevColor = -1;
+
+    // Color source of four soft colors; choose randomly but ensure adjacent bubbles differ
+    private static final Color[] COLORS = new Color[] {
+        new Color(200,230,255),
+        new Color(230,245,220),
+        new Color(235,220,255),
+        new Color(255,240,225)
+    };
 
     public TasksPage(MyCalendar calendar) {
         this.calendar = calendar;
@@ -59,8 +78,9 @@ public class TasksPage extends JFrame {
 
         add(mainPanel, BorderLayout.CENTER);
 
-        refresh();
         applyTheme();
+        UIUtils.loadMoreOnScroll(scroll, this::loadMore);
+        UIUtils.listenWhileShowing(this, calendar, this::onCalendarChanged, this::refresh);
         ThemeManager.addListener(new ThemeManager.ThemeChangeListener() {
             public void onThemeChanged(ThemeManager.Theme newTheme) {
                 applyTheme();
@@ -79,9 +99,12 @@ public class TasksPage extends JFrame {
     }
 
     public void refresh() {
-        List<Task> tasks = calendar.getTasksList();
+        KeysetPage<Task, TaskKey> page = calendar.tasksAfter(null, PAGE_SIZE);
         listPanel.removeAll();
-        if (tasks.isEmpty()) {
+        rows.clear();
+        cursor = page.getNextCursor();
+        hasMore = page.hasMore();
+        if (page.getItems().isEmpty()) {
             JLabel empty = new JLabel("No tasks added yet.");
             empty.setFont(new Font("Segoe UI", Font.PLAIN, 14));
             empty.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
@@ -91,25 +114,25 @@ public class TasksPage extends JFrame {
             return;
         }
 
-        // Color source of four soft colors; choose randomly but ensure adjacent bubbles differ
-        Color[] colors = new Color[] {
-            new Color(200,230,255),
-            new Color(230,245,220),
-            new Color(235,220,255),
-            new Color(255,240,225)
-        };
+        prevColor = -1;
+        appendRows(page.getItems());
+    }
+
+    // Append the next page when the user scrolls near the end of what is loaded
+    private void loadMore() {
+        if (!hasMore || rows.isEmpty()) return;
+        KeysetPage<Task, TaskKey> page = calendar.tasksAfter(cursor, PAGE_SIZE);
+        cursor = page.getNextCursor();
+        hasMore = page.hasMore();
+        // Drop the trailing glue; appendRows puts it back after the new rows
+        listPanel.remove(listPanel.getComponentCount() - 1);
+        appendRows(page.getItems());
+    }
 
-        Random rnd = new Random();
-        int prev = -1;
+    private void appendRows(List<Task> tasks) {
         for (Task t : tasks) {
-            int pick = rnd.nextInt(colors.length);
-            if (pick == prev) {
-                // choose a different adjacent colorif two are the same
-                pick = (pick + 1) % colors.length;
-            }
-            Color bg = colors[pick];
-            prev = pick;
-            TaskBubble bubble = new TaskBubble(t, bg);
+            Component bubble = createBubble(t);
+            rows.put(t, bubble);
             listPanel.add(Box.createVerticalStrut(8));
             listPanel.add(bubble);
         }
@@ -118,6 +141,39 @@ public class TasksPage extends JFrame {
         listPanel.repaint();
     }
 
+    // Position of a task among the loaded rows, or -1 if it is gone or not loaded yet
+    private int loadedIndexOf(CalendarSnapshot snapshot, Task t) {
+        int index = snapshot.indexOfTask(t);
+        if (index < 0 || (hasMore && TaskKey.of(t).compareTo(cursor) > 0)) return -1;
+        return index;
+    }
+
+    // Patch only the bubbles for tasks that changed
+    private void onCalendarChanged(List<CalendarChange> changes, CalendarSnapshot snapshot) {
+        List<Task> changed = new ArrayList<>();
+        for (CalendarChange change : changes) {
+            if (change.isTaskChange()) changed.add(change.getTask());
+        }
+        if (changed.isEmpty()) return;
+        if (rows.isEmpty() || snapshot.getTaskCount() == 0 || changed.size() > rows.size() / 2) {
+            // Switching to or from the empty-list message, or a bulk change that is
+            // cheaper to rebuild than to patch row by row
+            refresh();
+            return;
+        }
+        UIUtils.patchRows(listPanel, rows, changed, t -> loadedIndexOf(snapshot, t), this::createBubble, 8, true);
+    }
+
+    private Component createBubble(Task t) {
+        int pick = rnd.nextInt(COLORS.length);
+        if (pick == prevColor) {
+            // choose a different adjacent colorif two are the same
+            pick = (pick + 1) % COLORS.length;
+        }
+        prevColor = pick;
+        return new TaskBubble(t, COLORS[pick]);
+    }
+
     // Custom component that paints an ellipse-like rounded background and text
     private static class TaskBubble extends JComponent {
         private final Task task;
@@ -185,8 +241,7 @@ public class TasksPage extends JFrame {
 
                 // Draw bell icon if an alarm is scheduled for this task
                 try {
-                    java.util.List<Task> scheduled = AlarmManager.getScheduledTasks();
-                    if (scheduled.contains(task)) {
+                    if (AlarmManager.hasAlarm(task)) {
                         g2.setFont(new Font("Segoe UI Symbol", Font.PLAIN, 18));
                         g2.setColor(new Color(220, 100, 20));
                         String bell = "\uD83D\uDD14"; // 🔔
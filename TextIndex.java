@@ -0,0 +1,245 @@
+/**
+ * TextIndex.java
+ *
+ * Inverted word index over item names and descriptions with ranked, paged search.
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Each item is split into lower-case words; every word maps to the items containing it.
+ * A query only visits the posting lists of its own words (starting from the rarest), so
+ * its cost depends on how many items match, never on how many are indexed. Matches are
+ * ranked with BM25, counting a word in the name twice as much as one in the description.
+ * Not thread-safe; MyCalendar updates it under its write lock and searches under its
+ * read lock.
+ */
+public final class TextIndex<T> {
+
+    // BM25 tuning: term-frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 2;
+
+    // One indexed item with its words, weighted counts and what it was indexed from
+    private static final class Doc<T> {
+        final long id;
+        final T item;
+        final String name;
+        final String description;
+        final String[] terms;
+        final int[] counts;
+        final int length;
+
+        Doc(long id, T item, String name, String description) {
+            this.id = id;
+            this.item = item;
+            this.name = name;
+            this.description = description;
+            Map<String, Integer> tf = new HashMap<>();
+            for (String t : tokenize(name)) tf.merge(t, NAME_WEIGHT, Integer::sum);
+            for (String t : tokenize(description)) tf.merge(t, 1, Integer::sum);
+            terms = new String[tf.size()];
+            counts = new int[tf.size()];
+            int i = 0, len = 0;
+            for (Map.Entry<String, Integer> e : tf.entrySet()) {
+                terms[i] = e.getKey();
+                counts[i] = e.getValue();
+                len += counts[i];
+                i++;
+            }
+            length = len;
+        }
+
+        int count(String term) {
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i].equals(term)) return counts[i];
+            }
+            return 0;
+        }
+    }
+
+    // A page of ranked results plus the total number of matches
+    public static final class Page<T> {
+        private final List<T> items;
+        private final int total;
+        private final int offset;
+
+        Page(List<T> items, int total, int offset) {
+            this.items = items;
+            this.total = total;
+            this.offset = offset;
+        }
+
+        // Best match first
+        public List<T> getItems() {
+            return items;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public boolean hasMore() {
+            return offset + items.size() < total;
+        }
+    }
+
+    private final LongMap<Doc<T>> docs = new LongMap<>();
+    private final Map<String, LongMap<Doc<T>>> postings = new HashMap<>();
+    private long totalLength;
+
+    public int size() {
+        return docs.size();
+    }
+
+    // Index (or re-index) the item under id; cheap no-op if the text has not changed
+    public void put(long id, T item, String name, String description) {
+        Doc<T> old = docs.get(id);
+        if (old != null && old.item == item && Objects.equals(old.name, name) && Objects.equals(old.description, description)) return;
+        if (old != null) remove(id);
+        Doc<T> doc = new Doc<>(id, item, name, description);
+        docs.put(id, doc);
+        totalLength += doc.length;
+        for (String term : doc.terms) {
+            postings.computeIfAbsent(term, k -> new LongMap<>()).put(id, doc);
+        }
+    }
+
+    public void remove(long id) {
+        Doc<T> doc = docs.remove(id);
+        if (doc == null) return;
+        totalLength -= doc.length;
+        for (String term : doc.terms) {
+            LongMap<Doc<T>> list = postings.get(term);
+            if (list == null) continue;
+            list.remove(id);
+            if (list.isEmpty()) postings.remove(term);
+        }
+    }
+
+    public void clear() {
+        docs.clear();
+        postings.clear();
+        totalLength = 0;
+    }
+
+    // Number of items containing every word of the query
+    public int count(String query) {
+        return search(query, 0, 0).getTotal();
+    }
+
+    /**
+     * Items containing every word of the query, best first, skipping the first offset
+     * matches and returning at most limit. Only the top offset + limit are ever sorted.
+     */
+    public Page<T> search(String query, int offset, int limit) {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("Offset and limit cannot be negative.");
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty()) return new Page<>(Collections.emptyList(), 0, offset);
+        List<LongMap<Doc<T>>> lists = new ArrayList<>(words.size());
+        for (String w : words) {
+            LongMap<Doc<T>> list = postings.get(w);
+            if (list == null) return new Page<>(Collections.emptyList(), 0, offset);
+            lists.add(list);
+        }
+        // Drive the intersection from the shortest posting list
+        int rarest = 0;
+        for (int i = 1; i < lists.size(); i++) {
+            if (lists.get(i).size() < lists.get(rarest).size()) rarest = i;
+        }
+        double[] idf = new double[words.size()];
+        int n = docs.size();
+        for (int i = 0; i < idf.length; i++) {
+            int df = lists.get(i).size();
+            idf[i] = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        }
+        double avgLength = n == 0 ? 1 : Math.max(1.0, (double) totalLength / n);
+
+        final int driver = rarest;
+        // No more than the driving list can match; saturates instead of overflowing
+        int keep = (int) Math.min((long) offset + limit, lists.get(driver).size());
+        // Min-heap of the best `keep` hits so far; ties broken by id so paging is stable
+        PriorityQueue<Hit<T>> best = new PriorityQueue<>();
+        int[] total = {0};
+        lists.get(driver).forEachValue(doc -> {
+            for (int i = 0; i < lists.size(); i++) {
+                if (i != driver && lists.get(i).get(doc.id) == null) return;
+            }
+            double norm = K1 * (1 - B + B * doc.length / avgLength);
+            double score = 0;
+            for (int i = 0; i < lists.size(); i++) {
+                int tf = doc.count(words.get(i));
+                score += idf[i] * tf * (K1 + 1) / (tf + norm);
+            }
+            total[0]++;
+            if (keep == 0) return;
+            if (best.size() < keep) {
+                best.add(new Hit<>(doc.id, doc.item, score));
+            } else if (Hit.beats(score, doc.id, best.peek())) {
+                // Most matches lose to the current worst kept hit, so test before allocating
+                best.poll();
+                best.add(new Hit<>(doc.id, doc.item, score));
+            }
+        });
+        List<Hit<T>> ranked = new ArrayList<>(best);
+        ranked.sort(Collections.reverseOrder());
+        List<T> page = new ArrayList<>(Math.min(limit, Math.max(0, ranked.size() - offset)));
+        for (int i = offset; i < ranked.size(); i++) {
+            page.add(ranked.get(i).item);
+        }
+        return new Page<>(Collections.unmodifiableList(page), total[0], offset);
+    }
+
+    private static final class Hit<T> implements Comparable<Hit<T>> {
+        final long id;
+        final T item;
+        final double score;
+
+        Hit(long id, T item, double score) {
+            this.id = id;
+            this.item = item;
+            this.score = score;
+        }
+
+        // Higher score ranks higher; on a tie the older (smaller) id does
+        @Override
+        public int compareTo(Hit<T> o) {
+            int c = Double.compare(score, o.score);
+            return c != 0 ? c : Long.compare(o.id, id);
+        }
+
+        static boolean beats(double score, long id, Hit<?> other) {
+            int c = Double.compare(score, other.score);
+            return c != 0 ? c > 0 : id < other.id;
+        }
+    }
+
+    // Lower-case runs of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) return words;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
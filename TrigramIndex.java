@@ -0,0 +1,209 @@
+/**
+ * TrigramIndex.java
+ *
+ * Typo-tolerant name lookup: trigram postings prune candidates before an edit-distance check.
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Every word of a name is padded ("^^milk$$") and cut into overlapping three-character
+ * grams; each gram maps to the items containing it. A single typo changes at most three
+ * grams, so a word within k edits of the query must share at least (query grams - 3k) of
+ * them. Only items reaching that count get a real (bounded) Levenshtein check, against
+ * the whole name and against each of its words, whichever is closer. The bound is exact
+ * for edits inside words; an edit that adds or removes a space between words can be
+ * missed. Not thread-safe; MyCalendar guards it with its lock.
+ */
+public final class TrigramIndex<T> {
+
+    private static final class Doc<T> {
+        final long id;
+        final T item;
+        final String name;
+        final String key;
+        final String[] words;
+        final long[] grams;
+
+        Doc(long id, T item, String name) {
+            this.id = id;
+            this.item = item;
+            this.name = name;
+            this.key = normalize(name);
+            this.words = key.isEmpty() ? new String[0] : key.split(" ");
+            this.grams = grams(key);
+        }
+    }
+
+    private final LongMap<Doc<T>> docs = new LongMap<>();
+    // Packed trigram -> items containing it
+    private final LongMap<LongMap<Doc<T>>> postings = new LongMap<>();
+
+    public int size() {
+        return docs.size();
+    }
+
+    // Index (or re-index) the item's name under id
+    public void put(long id, T item, String name) {
+        Doc<T> old = docs.get(id);
+        if (old != null && old.item == item && old.name.equals(name == null ? "" : name)) return;
+        if (old != null) remove(id);
+        Doc<T> doc = new Doc<>(id, item, name == null ? "" : name);
+        docs.put(id, doc);
+        for (long g : doc.grams) {
+            LongMap<Doc<T>> list = postings.get(g);
+            if (list == null) {
+                list = new LongMap<>();
+                postings.put(g, list);
+            }
+            list.put(id, doc);
+        }
+    }
+
+    public void remove(long id) {
+        Doc<T> doc = docs.remove(id);
+        if (doc == null) return;
+        for (long g : doc.grams) {
+            LongMap<Doc<T>> list = postings.get(g);
+            if (list == null) continue;
+            list.remove(id);
+            if (list.isEmpty()) postings.remove(g);
+        }
+    }
+
+    public void clear() {
+        docs.clear();
+        postings.clear();
+    }
+
+    // Typo allowance used when the caller does not choose one: grows with query length
+    public static int defaultDistance(String query) {
+        int len = normalize(query).length();
+        return len <= 4 ? 1 : len <= 8 ? 2 : 3;
+    }
+
+    /**
+     * Up to limit items whose name (or one word of it) is within maxDistance edits of the
+     * query, closest first, then by most shared trigrams, then oldest.
+     */
+    public List<T> search(String query, int maxDistance, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) return Collections.emptyList();
+        long[] qGrams = grams(q);
+        // Each edit touches at most three grams; always require at least one in common
+        int needed = Math.max(1, qGrams.length - 3 * maxDistance);
+
+        // Count shared grams per item, touching only the query grams' posting lists
+        LongMap<Candidate<T>> overlap = new LongMap<>();
+        for (long g : qGrams) {
+            LongMap<Doc<T>> list = postings.get(g);
+            if (list == null) continue;
+            list.forEachValue(doc -> {
+                Candidate<T> c = overlap.get(doc.id);
+                if (c == null) overlap.put(doc.id, new Candidate<>(doc));
+                else c.shared++;
+            });
+        }
+
+        List<Match<T>> matches = new ArrayList<>();
+        overlap.forEachValue(c -> {
+            if (c.shared < needed) return;
+            int d = distance(q, c.doc, maxDistance);
+            if (d <= maxDistance) matches.add(new Match<>(c.doc, d, c.shared));
+        });
+        matches.sort(null);
+        List<T> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i).doc.item);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static final class Candidate<T> {
+        final Doc<T> doc;
+        int shared = 1;
+
+        Candidate(Doc<T> doc) {
+            this.doc = doc;
+        }
+    }
+
+    private static final class Match<T> implements Comparable<Match<T>> {
+        final Doc<T> doc;
+        final int distance;
+        final int shared;
+
+        Match(Doc<T> doc, int distance, int shared) {
+            this.doc = doc;
+            this.distance = distance;
+            this.shared = shared;
+        }
+
+        @Override
+        public int compareTo(Match<T> o) {
+            if (distance != o.distance) return Integer.compare(distance, o.distance);
+            if (shared != o.shared) return Integer.compare(o.shared, shared);
+            return Long.compare(doc.id, o.doc.id);
+        }
+    }
+
+    // Closest of the whole name and each of its words, or max + 1 if all are further
+    private static int distance(String q, Doc<?> doc, int max) {
+        int best = boundedLevenshtein(q, doc.key, max);
+        if (doc.words.length > 1) {
+            for (String w : doc.words) {
+                if (best == 0) break;
+                best = Math.min(best, boundedLevenshtein(q, w, Math.min(max, best)));
+            }
+        }
+        return best;
+    }
+
+    // Edit distance, or max + 1 as soon as it is certain to exceed max
+    static int boundedLevenshtein(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                if (cur[j] < rowMin) rowMin = cur[j];
+            }
+            if (rowMin > max) return max + 1;
+            int[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return Math.min(prev[b.length()], max + 1);
+    }
+
+    // Lower case, letters and digits only, single spaces between words
+    static String normalize(String s) {
+        if (s == null) return "";
+        return String.join(" ", TextIndex.tokenize(s)).toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct padded trigrams of every word, packed three chars to a long
+    private static long[] grams(String key) {
+        LongMap<Boolean> seen = new LongMap<>();
+        List<Long> out = new ArrayList<>();
+        if (key.isEmpty()) return new long[0];
+        for (String w : key.split(" ")) {
+            String padded = "^^" + w + "$$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                long g = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+                if (seen.put(g, Boolean.TRUE) == null) out.add(g);
+            }
+        }
+        long[] result = new long[out.size()];
+        for (int i = 0; i < result.length; i++) result[i] = out.get(i);
+        return result;
+    }
+}
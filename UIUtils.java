@@ -1,5 +1,19 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 /**
  * UIUtils: centralized UI defaults for a more modern look.
@@ -74,6 +88,90 @@ public class UIUtils {
         field.setCaretColor(ThemeManager.getTextColor());
     }
 
+    /**
+     * Keep the listener registered with the calendar only while the window is showing, so a
+     * hidden window stops patching itself. Each time the window is shown again the listener
+     * is added back first and onShown then catches up with whatever changed meanwhile.
+     * Disposing the window removes the listener for good.
+     */
+    public static void listenWhileShowing(Window window, MyCalendar calendar,
+                                          MyCalendar.ChangeListener listener, Runnable onShown) {
+        window.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                calendar.addChangeListener(listener);
+                onShown.run();
+            }
+
+            @Override
+            public void componentHidden(ComponentEvent e) {
+                calendar.removeChangeListener(listener);
+            }
+        });
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                calendar.removeChangeListener(listener);
+            }
+        });
+    }
+
+    /**
+     * Run loadMore whenever the view is scrolled to within one screen of its bottom, so a
+     * long list can be filled a page at a time. loadMore must do nothing once the list is
+     * complete.
+     */
+    public static void loadMoreOnScroll(JScrollPane scroll, Runnable loadMore) {
+        JScrollBar bar = scroll.getVerticalScrollBar();
+        bar.addAdjustmentListener(e -> {
+            if (bar.getValue() + 2 * bar.getVisibleAmount() >= bar.getMaximum()) loadMore.run();
+        });
+    }
+
+    /**
+     * Patch a vertical list of rows in place instead of rebuilding it. Each item takes two
+     * slots in the panel, its row and a spacer (before or after the row). Rows for the
+     * changed items are removed; those items that are still present (indexOf >= 0) get a
+     * fresh row at their current position. Every other row is left untouched.
+     */
+    public static <T> void patchRows(JPanel list, Map<T, Component> rows, Collection<T> changed,
+                                     ToIntFunction<T> indexOf, Function<T, Component> rowFactory,
+                                     int spacing, boolean spacerFirst) {
+        Set<T> items = Collections.newSetFromMap(new IdentityHashMap<>());
+        items.addAll(changed);
+        for (T item : items) {
+            Component row = rows.remove(item);
+            if (row == null) continue;
+            int z = list.getComponentZOrder(row);
+            if (z < 0) continue;
+            int spacer = spacerFirst ? z - 1 : z + 1;
+            list.remove(Math.max(z, spacer));
+            list.remove(Math.min(z, spacer));
+        }
+        // (position, item) pairs of the changed items that are still present
+        List<Map.Entry<Integer, T>> present = new ArrayList<>();
+        for (T item : items) {
+            int index = indexOf.applyAsInt(item);
+            if (index >= 0) present.add(new AbstractMap.SimpleImmutableEntry<>(index, item));
+        }
+        present.sort(Map.Entry.comparingByKey());
+        // Ascending order: every row before an insertion point is already in place
+        for (Map.Entry<Integer, T> entry : present) {
+            T item = entry.getValue();
+            int base = entry.getKey() * 2;
+            Component row = rowFactory.apply(item);
+            rows.put(item, row);
+            if (spacerFirst) {
+                list.add(Box.createVerticalStrut(spacing), base);
+                list.add(row, base + 1);
+            } else {
+                list.add(row, base);
+                list.add(Box.createVerticalStrut(spacing), base + 1);
+            }
+        }
+        list.revalidate();
+        list.repaint();
+    }
 }
 // Package-private rounded panel utility kept in same file to reduce small files
 class RoundedPanel extends JPanel {
@@ -109,5 +207,3 @@ class RoundedPanel extends JPanel {
         super.paintComponent(g);
     }
 }
- 
-
@@ -0,0 +1,116 @@
+/**
+ * ValuePool.java
+ *
+ * Shared instances of repeated task/event names, descriptions and dates.
+ */
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Imported calendars repeat the same few names ("Homework"), descriptions and due dates
+ * thousands of times. Task and Event pass every such value through here, so equal values
+ * share one instance instead of each line of a file keeping its own copy.
+ *
+ * Dates are a flyweight table indexed by epoch day over FIRST_YEAR..LAST_YEAR (filled on
+ * first use); dates outside it are returned unchanged. The string pools stop growing at
+ * MAX_STRINGS entries, so a file full of unique names cannot pin unbounded memory.
+ * Safe to use from any thread.
+ */
+public final class ValuePool {
+
+    private static final int FIRST_YEAR = 2000;
+    private static final int LAST_YEAR = 2099;
+    private static final long FIRST_DAY = LocalDate.of(FIRST_YEAR, 1, 1).toEpochDay();
+    private static final long LAST_DAY = LocalDate.of(LAST_YEAR, 12, 31).toEpochDay();
+    private static final int MAX_STRINGS = 100_000;
+
+    // Rough heap cost of the objects a hit avoids keeping (64-bit JVM, compressed oops)
+    private static final int DATE_BYTES = 24;
+    private static final int STRING_BYTES = 24 + 16;
+
+    private static final AtomicReferenceArray<LocalDate> DATES =
+            new AtomicReferenceArray<>((int) (LAST_DAY - FIRST_DAY + 1));
+    private static final ConcurrentHashMap<String, String> NAMES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, String> DESCRIPTIONS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong dateHits = new AtomicLong();
+    private static final AtomicLong stringHits = new AtomicLong();
+    private static final AtomicLong savedBytes = new AtomicLong();
+
+    private ValuePool() {
+    }
+
+    // Shared instance equal to date (null stays null)
+    public static LocalDate date(LocalDate date) {
+        if (date == null) return null;
+        long day = date.toEpochDay();
+        if (day < FIRST_DAY || day > LAST_DAY) return date;
+        int i = (int) (day - FIRST_DAY);
+        LocalDate shared = DATES.get(i);
+        if (shared == null) {
+            if (DATES.compareAndSet(i, null, date)) return date;
+            shared = DATES.get(i);
+        }
+        if (shared != date) {
+            dateHits.incrementAndGet();
+            savedBytes.addAndGet(DATE_BYTES);
+        }
+        return shared;
+    }
+
+    // Shared date for an epoch day, created only the first time the day is seen.
+    // A plain lookup, not a reuse: nothing is counted, since no caller held a copy to drop.
+    public static LocalDate dateOfEpochDay(long day) {
+        if (day >= FIRST_DAY && day <= LAST_DAY) {
+            LocalDate shared = DATES.get((int) (day - FIRST_DAY));
+            if (shared != null) return shared;
+        }
+        return date(LocalDate.ofEpochDay(day));
+    }
+
+    // Shared instance of a task or event name
+    public static String name(String name) {
+        return intern(NAMES, name);
+    }
+
+    // Shared instance of a task or event description
+    public static String description(String description) {
+        return intern(DESCRIPTIONS, description);
+    }
+
+    private static String intern(ConcurrentHashMap<String, String> pool, String s) {
+        if (s == null) return null;
+        String shared = pool.get(s);
+        if (shared == null) {
+            if (pool.size() >= MAX_STRINGS) return s;
+            shared = pool.putIfAbsent(s, s);
+            if (shared == null) return s;
+        }
+        if (shared != s) {
+            stringHits.incrementAndGet();
+            savedBytes.addAndGet(STRING_BYTES + s.length());
+        }
+        return shared;
+    }
+
+    // Estimated bytes not kept alive because a pooled instance was reused, since start-up
+    public static long getSavedBytes() {
+        return savedBytes.get();
+    }
+
+    public static long getDateHits() {
+        return dateHits.get();
+    }
+
+    public static long getStringHits() {
+        return stringHits.get();
+    }
+
+    // One-line summary for logs
+    public static String report() {
+        return String.format("Value pools: %d names, %d descriptions; %d string and %d date reuses, about %d KB saved",
+                NAMES.size(), DESCRIPTIONS.size(), getStringHits(), getDateHits(), getSavedBytes() / 1024);
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * AllTests.java
+ *
+ * Runs every test class and exits non-zero if any check failed.
+ */
+public class AllTests {
+    public static void main(String[] args) {
+        PersistentSortedMapTest.run();
+        EventIntervalTreeTest.run();
+        LongMapTest.run();
+        NameTrieTest.run();
+        TrigramIndexTest.run();
+        TextIndexTest.run();
+        CalendarClockTest.run();
+        TaskDependenciesTest.run();
+        MappedCalendarStoreTest.run();
+        ValuePoolTest.run();
+        KeysetPageTest.run();
+        MyCalendarTest.run();
+        CalendarSnapshotTest.run();
+        CalendarRegistryTest.run();
+        CalendarChangeTest.run();
+        DayCacheTest.run();
+        EventConflictsTest.run();
+        FreeDayFinderTest.run();
+        System.out.println(Check.getPassed() + " passed, " + Check.getFailed() + " failed");
+        System.exit(Check.getFailed() == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * CalendarChangeTest.java
+ *
+ * Change batches: coalesced per EDT turn, in order, with the snapshot they were built from.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+
+final class CalendarChangeTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private CalendarChangeTest() {
+    }
+
+    static void run() {
+        Check.test("MyCalendar coalesces changes into one batch per EDT turn", CalendarChangeTest::coalescesBatches);
+        Check.test("MyCalendar hands each batch the snapshot it was built from", CalendarChangeTest::batchCarriesSnapshot);
+        Check.test("CalendarChange reports old and new dates of an edit", CalendarChangeTest::editTouchesBothDates);
+    }
+
+    private static void coalescesBatches() throws Exception {
+        MyCalendar calendar = new MyCalendar();
+        List<List<CalendarChange>> batches = new ArrayList<>();
+        List<CalendarSnapshot> snapshots = new ArrayList<>();
+        MyCalendar.ChangeListener listener = (changes, snapshot) -> {
+            batches.add(changes);
+            snapshots.add(snapshot);
+        };
+        calendar.addChangeListener(listener);
+        Task a = new Task("a", BASE);
+        Task b = new Task("b", BASE.plusDays(1));
+        Event e = new Event("e", BASE, BASE.plusDays(2));
+        // All on the EDT, so the flush cannot run until this turn is over
+        SwingUtilities.invokeAndWait(() -> {
+            calendar.addTask(a);
+            calendar.addTask(b);
+            calendar.addEvent(e);
+            b.setdueDate(BASE.plusDays(5));
+            calendar.removeTask(a);
+        });
+        SwingUtilities.invokeAndWait(() -> { });
+        Check.equal(1, batches.size());
+        List<CalendarChange.Type> types = new ArrayList<>();
+        for (CalendarChange c : batches.get(0)) types.add(c.getType());
+        Check.equal(List.of(CalendarChange.Type.TASK_ADDED, CalendarChange.Type.TASK_ADDED, CalendarChange.Type.EVENT_ADDED,
+                CalendarChange.Type.TASK_EDITED, CalendarChange.Type.TASK_REMOVED), types);
+        Check.isTrue(snapshots.get(0) == calendar.snapshot(), "batch carries the snapshot after its last change");
+        calendar.removeChangeListener(listener);
+        SwingUtilities.invokeAndWait(() -> calendar.addTask(new Task("c", BASE)));
+        SwingUtilities.invokeAndWait(() -> { });
+        Check.equal(1, batches.size());
+    }
+
+    // A listener that edits the calendar publishes changes the rest of this batch has not seen
+    private static void batchCarriesSnapshot() throws Exception {
+        MyCalendar calendar = new MyCalendar();
+        Task late = new Task("late", BASE);
+        List<Integer> counts = new ArrayList<>();
+        List<Integer> liveCounts = new ArrayList<>();
+        calendar.addChangeListener((changes, snapshot) -> {
+            if (!calendar.getTasksList().contains(late)) calendar.addTask(late);
+        });
+        calendar.addChangeListener((changes, snapshot) -> {
+            counts.add(snapshot.getTaskCount());
+            liveCounts.add(calendar.getTaskCount());
+            for (CalendarChange c : changes) {
+                Check.isTrue(snapshot.indexOfTask(c.getTask()) >= 0, "every task in the batch is in its snapshot");
+            }
+        });
+        SwingUtilities.invokeAndWait(() -> calendar.addTask(new Task("first", BASE.plusDays(1))));
+        SwingUtilities.invokeAndWait(() -> { });
+        SwingUtilities.invokeAndWait(() -> { });
+        // The first batch saw one task while the calendar already held two; the second caught up
+        Check.equal(List.of(1, 2), counts);
+        Check.equal(List.of(2, 2), liveCounts);
+    }
+
+    private static void editTouchesBothDates() {
+        Task task = new Task("t", BASE);
+        CalendarChange edit = CalendarChange.taskEdited(task, BASE.minusDays(3));
+        Check.isTrue(edit.affects(BASE), "new date is affected");
+        Check.isTrue(edit.affects(BASE.minusDays(3)), "old date is affected");
+        Check.isTrue(!edit.affects(BASE.minusDays(1)), "dates in between are not");
+        Check.isTrue(edit.affects(BASE.minusDays(10), BASE.minusDays(2)), "a range holding the old date is affected");
+        Event event = new Event("e", BASE, BASE.plusDays(2));
+        CalendarChange moved = CalendarChange.eventEdited(event, BASE.plusDays(10), BASE.plusDays(11));
+        Check.isTrue(moved.affects(BASE.plusDays(1)) && moved.affects(BASE.plusDays(11)), "both spans are affected");
+        Check.isTrue(!moved.affects(BASE.plusDays(5)), "the gap between spans is not");
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * CalendarClockTest.java
+ *
+ * Cached date and midnight rollover, driven by a clock the test controls.
+ */
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+final class CalendarClockTest {
+    private static final ZoneId ZONE = ZoneId.of("America/Toronto");
+
+    private CalendarClockTest() {
+    }
+
+    // Clock whose time only moves when the test says so
+    static final class ManualClock extends Clock {
+        private volatile Instant now;
+
+        ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceSeconds(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    static void run() {
+        Check.test("CalendarClock rolls over once at local midnight", CalendarClockTest::rollsOverOnce);
+        Check.test("CalendarClock re-arms a timer that fires early", CalendarClockTest::rearmsEarlyTimer);
+        Check.test("MyCalendar sweeps expired tasks on rollover", CalendarClockTest::sweepsOnRollover);
+        Check.test("Tasks read today from their calendar's clock", CalendarClockTest::tasksUseCalendarClock);
+    }
+
+    static ManualClock lateEvening(LocalDate date) {
+        return new ManualClock(date.atTime(23, 59).atZone(ZONE).toInstant());
+    }
+
+    private static void rollsOverOnce() {
+        ManualClock time = lateEvening(LocalDate.of(2030, 3, 9));
+        CalendarClock clock = new CalendarClock(time);
+        List<String> fired = new ArrayList<>();
+        clock.addRolloverListener((previous, today) -> fired.add(previous + ">" + today));
+        Check.equal(LocalDate.of(2030, 3, 9), clock.getToday());
+        time.advanceSeconds(30);
+        Check.equal(LocalDate.of(2030, 3, 9), clock.getToday());
+        Check.equal(List.of(), fired);
+        time.advanceSeconds(60);
+        // Noticed by the read itself; the explicit check afterwards must not fire again
+        Check.equal(LocalDate.of(2030, 3, 10), clock.getToday());
+        clock.checkRollover();
+        Check.equal(List.of("2030-03-09>2030-03-10"), fired);
+    }
+
+    // The timer runs on real time while the test clock stands still, so it fires "early"
+    private static void rearmsEarlyTimer() throws InterruptedException {
+        ManualClock time = new ManualClock(LocalDate.of(2030, 3, 9).atTime(23, 59, 59).atZone(ZONE).toInstant());
+        CalendarClock clock = new CalendarClock(time);
+        List<LocalDate> fired = new CopyOnWriteArrayList<>();
+        clock.addRolloverListener((previous, today) -> fired.add(today));
+        // First wake-up is about two seconds out; let it pass with the date unchanged
+        Thread.sleep(2500);
+        Check.equal(List.of(), fired);
+        time.advanceSeconds(2);
+        for (int waited = 0; fired.isEmpty() && waited < 5000; waited += 50) Thread.sleep(50);
+        Check.equal(List.of(LocalDate.of(2030, 3, 10)), fired);
+    }
+
+    private static void sweepsOnRollover() {
+        ManualClock time = lateEvening(LocalDate.of(2030, 3, 9));
+        CalendarClock clock = new CalendarClock(time);
+        MyCalendar calendar = new MyCalendar(clock);
+        Task today = new Task("today", LocalDate.of(2030, 3, 9));
+        Task tomorrow = new Task("tomorrow", LocalDate.of(2030, 3, 10));
+        calendar.addTask(today);
+        calendar.addTask(tomorrow);
+        Check.equal(0, calendar.rollOverIfNeeded());
+        time.advanceSeconds(120);
+        clock.checkRollover();
+        Check.equal(1, calendar.rollOverIfNeeded());
+        Check.equal(List.of(tomorrow), calendar.getTasksList());
+        Check.equal(0, calendar.rollOverIfNeeded());
+    }
+
+    private static void tasksUseCalendarClock() {
+        LocalDate day = LocalDate.of(2030, 3, 9);
+        ManualClock time = lateEvening(day);
+        MyCalendar calendar = new MyCalendar(new CalendarClock(time));
+        Task task = new Task("due", day);
+        Task done = new Task("done", day.plusDays(5));
+        calendar.addTask(task);
+        calendar.addTask(done);
+        Check.isTrue(task.isDueToday(), "due on the calendar's today");
+        Check.isTrue(!task.isOverdue(), "not overdue yet");
+        Check.equal(5L, done.daysUntilDue());
+        done.markCompleted();
+        Check.equal(day, done.getCompletionDate());
+        time.advanceSeconds(120);
+        calendar.getClock().checkRollover();
+        // Still listed until the sweep runs, and already overdue by the calendar's clock
+        Check.isTrue(task.isOverdue(), "overdue after the calendar's midnight");
+        Check.equal(4L, done.daysUntilDue());
+        // Out of the calendar the task falls back to the default clock
+        calendar.removeTask(task);
+        Check.equal(task.getDueDate().isBefore(CalendarClock.today()), task.isOverdue());
+    }
+}
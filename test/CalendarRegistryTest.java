@@ -0,0 +1,82 @@
+/**
+ * CalendarRegistryTest.java
+ *
+ * Merged task and event views across calendars against a sort of everything.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+final class CalendarRegistryTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private CalendarRegistryTest() {
+    }
+
+    static void run() {
+        Check.test("CalendarRegistry merges match a sort of every calendar", CalendarRegistryTest::mergesMatchSort);
+        Check.test("CalendarRegistry rejects bad names and finds owners", CalendarRegistryTest::namesAndOwners);
+    }
+
+    private static void mergesMatchSort() {
+        Random rnd = new Random(14);
+        CalendarRegistry registry = new CalendarRegistry();
+        List<Task> tasks = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        for (String name : new String[] {"work", "personal", "team"}) {
+            MyCalendar calendar = registry.create(name);
+            for (int i = 0; i < 150; i++) {
+                Task t = new Task(name + i, BASE.plusDays(rnd.nextInt(40)), priorities[rnd.nextInt(priorities.length)], "");
+                calendar.addTask(t);
+                tasks.add(t);
+            }
+            for (int i = 0; i < 50; i++) {
+                LocalDate start = BASE.plusDays(rnd.nextInt(40));
+                Event e = new Event(name + i, start, start.plusDays(rnd.nextInt(4)));
+                calendar.addEvent(e);
+                events.add(e);
+            }
+        }
+        tasks.sort(Comparator.comparing(TaskKey::of));
+        events.sort(Comparator.comparing(EventKey::of));
+        Check.equal(tasks, registry.getTasksList());
+        Check.equal(events, registry.getEventsList());
+        for (int q = 0; q < 40; q++) {
+            LocalDate from = BASE.plusDays(rnd.nextInt(45) - 3);
+            LocalDate to = from.plusDays(rnd.nextInt(8));
+            List<Task> dueIn = new ArrayList<>();
+            for (Task t : tasks) if (!t.getDueDate().isBefore(from) && !t.getDueDate().isAfter(to)) dueIn.add(t);
+            Check.equal(dueIn, registry.getTasksBetween(from, to));
+            List<Event> overlapping = new ArrayList<>();
+            for (Event e : events) if (!e.getEndDate().isBefore(from) && !e.getStartDate().isAfter(to)) overlapping.add(e);
+            Check.equal(overlapping, registry.getEventsBetween(from, to));
+            CalendarWindow window = registry.getWindow(from, to);
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                Check.equal(registry.getTasksOn(d), window.getTasksOn(d));
+                Check.equal(registry.getTasksOn(d).size(), registry.countTasksOn(d));
+                Check.equal(registry.getEventsOn(d), window.getEventsOn(d));
+            }
+        }
+    }
+
+    private static void namesAndOwners() {
+        CalendarRegistry registry = new CalendarRegistry();
+        MyCalendar work = registry.create("work");
+        MyCalendar home = registry.create("home");
+        Check.throwsIllegalArgument(() -> registry.create("work"));
+        Check.throwsIllegalArgument(() -> registry.create(" "));
+        Check.equal(List.of("work", "home"), registry.getNames());
+        Task task = new Task("report", BASE);
+        Event event = new Event("offsite", BASE, BASE.plusDays(1));
+        home.addTask(task);
+        work.addEvent(event);
+        Check.equal("home", registry.getCalendarNameOf(task));
+        Check.equal("work", registry.getCalendarNameOf(event));
+        Check.equal(null, registry.getCalendarNameOf(new Task("other", BASE)));
+        Check.isTrue(registry.remove("home") == home, "remove returns the calendar");
+        Check.equal(List.of(), registry.getTasksList());
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * CalendarSnapshotTest.java
+ *
+ * Read-only day views, visitors and counters against a scan, and snapshot isolation.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class CalendarSnapshotTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private CalendarSnapshotTest() {
+    }
+
+    static void run() {
+        Check.test("CalendarSnapshot day views match a scan", CalendarSnapshotTest::dayViewsMatchScan);
+        Check.test("CalendarSnapshot views never change after later edits", CalendarSnapshotTest::viewsAreIsolated);
+        Check.test("CalendarWindow buckets match per-day queries", CalendarSnapshotTest::windowMatchesDays);
+    }
+
+    private static MyCalendar sampleCalendar(Random rnd, List<Task> tasks, List<Event> events) {
+        MyCalendar calendar = new MyCalendar();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        for (int i = 0; i < 400; i++) {
+            tasks.add(new Task("t" + i, BASE.plusDays(rnd.nextInt(90)), priorities[rnd.nextInt(priorities.length)], ""));
+        }
+        for (int i = 0; i < 120; i++) {
+            LocalDate start = BASE.plusDays(rnd.nextInt(90));
+            events.add(new Event("e" + i, start, start.plusDays(rnd.nextInt(6))));
+        }
+        calendar.addTasks(tasks);
+        calendar.addEvents(events);
+        return calendar;
+    }
+
+    private static void dayViewsMatchScan() {
+        List<Task> tasks = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        MyCalendar calendar = sampleCalendar(new Random(11), tasks, events);
+        CalendarSnapshot snapshot = calendar.snapshot();
+        for (int d = -3; d < 100; d++) {
+            LocalDate day = BASE.plusDays(d);
+            List<Task> expected = new ArrayList<>();
+            for (Task t : snapshot.getTasksList()) if (t.getDueDate().equals(day)) expected.add(t);
+            Check.equal(expected, snapshot.getTasksOn(day));
+            Check.equal(expected, calendar.getTasksOn(day));
+            List<Task> visited = new ArrayList<>();
+            calendar.forEachTaskOn(day, visited::add);
+            Check.equal(expected, visited);
+            Check.equal(expected.size(), calendar.countTasksOn(day));
+            List<Event> expectedEvents = new ArrayList<>();
+            for (Event e : snapshot.getEventsList()) if (e.occursOn(day)) expectedEvents.add(e);
+            Check.equal(expectedEvents, calendar.getEventsOn(day));
+            List<Object> seen = new ArrayList<>();
+            calendar.forEachEventOn(day, seen::add);
+            Check.equal(expectedEvents, seen);
+            Check.equal(expectedEvents.size(), calendar.countEventsOn(day));
+        }
+        int between = 0;
+        for (Task t : tasks) if (!t.getDueDate().isBefore(BASE.plusDays(10)) && !t.getDueDate().isAfter(BASE.plusDays(20))) between++;
+        Check.equal(between, calendar.countTasksBetween(BASE.plusDays(10), BASE.plusDays(20)));
+        // A cached day is handed out as the same read-only view, not a fresh copy
+        LocalDate day = tasks.get(0).getDueDate();
+        Check.isTrue(calendar.getTasksOn(day) == calendar.getTasksOn(day), "cache hit returns the cached view");
+        Check.throwsUnsupported(() -> calendar.getTasksOn(day).clear());
+        Check.throwsUnsupported(() -> calendar.getTasksList().add(tasks.get(0)));
+    }
+
+    private static void viewsAreIsolated() {
+        List<Task> tasks = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        MyCalendar calendar = sampleCalendar(new Random(12), tasks, events);
+        Task moved = tasks.get(0);
+        LocalDate day = moved.getDueDate();
+        CalendarSnapshot before = calendar.snapshot();
+        List<Task> dayBefore = calendar.getTasksOn(day);
+        List<Task> copy = new ArrayList<>(dayBefore);
+        long version = before.getVersion();
+        moved.setdueDate(day.plusDays(200));
+        calendar.removeTask(tasks.get(1));
+        Check.equal(copy, dayBefore);
+        Check.equal(copy, before.getTasksOn(day));
+        Check.equal(400, before.getTaskCount());
+        Check.equal(version, before.getVersion());
+        Check.equal(version + 2, calendar.snapshot().getVersion());
+        Check.isTrue(!calendar.getTasksOn(day).contains(moved), "the calendar's own view moved on");
+        Check.equal(List.of(moved), calendar.getTasksOn(day.plusDays(200)));
+    }
+
+    private static void windowMatchesDays() {
+        List<Task> tasks = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        MyCalendar calendar = sampleCalendar(new Random(13), tasks, events);
+        // A month view (from cached days) and a longer range (one index pass)
+        for (int length : new int[] {35, 80}) {
+            LocalDate from = BASE.plusDays(5);
+            LocalDate to = from.plusDays(length - 1);
+            CalendarWindow window = calendar.getWindow(from, to);
+            CalendarWindow direct = calendar.snapshot().getWindow(from, to);
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                Check.equal(calendar.snapshot().getTasksOn(d), window.getTasksOn(d));
+                Check.equal(calendar.snapshot().getEventsOn(d), window.getEventsOn(d));
+                Check.equal(window.getTasksOn(d), direct.getTasksOn(d));
+                Check.equal(window.getEventsOn(d), direct.getEventsOn(d));
+                Check.equal(window.getTasksOn(d).size(), window.countTasksOn(d));
+            }
+            Check.isTrue(!window.contains(to.plusDays(1)), "window ends at its last day");
+        }
+        Check.throwsIllegalArgument(() -> calendar.snapshot().getWindow(BASE, BASE.minusDays(1)));
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Check.java
+ *
+ * Minimal assertion helpers and test bookkeeping for the plain-Java test suite.
+ */
+import java.util.Objects;
+
+final class Check {
+    private static int passed;
+    private static int failed;
+
+    private Check() {
+    }
+
+    // Named check body; anything thrown counts as a failure
+    interface Body {
+        void run() throws Exception;
+    }
+
+    static void test(String name, Body body) {
+        try {
+            body.run();
+            passed++;
+        } catch (Throwable t) {
+            failed++;
+            System.out.println("FAIL " + name + ": " + t);
+        }
+    }
+
+    static void isTrue(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+
+    static void equal(Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError("expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    static void throwsIllegalArgument(Body body) {
+        try {
+            body.run();
+        } catch (IllegalArgumentException expected) {
+            return;
+        } catch (Throwable other) {
+            throw new AssertionError("expected IllegalArgumentException but got " + other);
+        }
+        throw new AssertionError("expected IllegalArgumentException");
+    }
+
+    // For read-only views
+    static void throwsUnsupported(Body body) {
+        try {
+            body.run();
+        } catch (UnsupportedOperationException expected) {
+            return;
+        } catch (Throwable other) {
+            throw new AssertionError("expected UnsupportedOperationException but got " + other);
+        }
+        throw new AssertionError("expected UnsupportedOperationException");
+    }
+
+    static int getPassed() {
+        return passed;
+    }
+
+    static int getFailed() {
+        return failed;
+    }
+}
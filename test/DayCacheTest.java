@@ -0,0 +1,117 @@
+/**
+ * DayCacheTest.java
+ *
+ * Per-day cache invalidation, the stale-put guard, and the calendar reads it serves.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class DayCacheTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private DayCacheTest() {
+    }
+
+    static void run() {
+        Check.test("DayCache drops only the days a change touched", DayCacheTest::dropsTouchedDays);
+        Check.test("DayCache refuses results computed against an old snapshot", DayCacheTest::refusesStalePut);
+        Check.test("MyCalendar day reads stay current through random edits", DayCacheTest::staysCurrent);
+    }
+
+    private static void dropsTouchedDays() {
+        DayCache cache = new DayCache(64);
+        Check.throwsIllegalArgument(() -> new DayCache(0));
+        for (int d = 0; d < 20; d++) cache.put(BASE.plusDays(d), emptyDay(), () -> true);
+        Check.equal(20, cache.size());
+        Check.isTrue(cache.get(BASE.plusDays(3)) != null, "cached day is a hit");
+        Check.isTrue(cache.get(BASE.plusDays(30)) == null, "uncached day is a miss");
+        Check.equal(1L, cache.getHits());
+        Check.equal(1L, cache.getMisses());
+
+        // A task moved from day 3 to day 5 drops both days and nothing else
+        Task task = new Task("t", BASE.plusDays(5));
+        cache.invalidate(List.of(CalendarChange.taskEdited(task, BASE.plusDays(3))));
+        Check.equal(18, cache.size());
+        Check.isTrue(cache.get(BASE.plusDays(3)) == null, "old due date dropped");
+        Check.isTrue(cache.get(BASE.plusDays(5)) == null, "new due date dropped");
+        Check.isTrue(cache.get(BASE.plusDays(4)) != null, "untouched day kept");
+        Check.equal(2L, cache.getInvalidations());
+
+        // An event spanning far more days than are cached drops just the cached ones inside it
+        Event event = new Event("e", BASE.plusDays(10), BASE.plusDays(400), "");
+        cache.invalidate(List.of(CalendarChange.eventAdded(event)));
+        Check.equal(8, cache.size());
+        Check.isTrue(cache.get(BASE.plusDays(9)) != null, "day before the span kept");
+
+        // More changes than the cache holds empty it
+        List<CalendarChange> many = new ArrayList<>();
+        for (int i = 0; i < 65; i++) many.add(CalendarChange.taskAdded(new Task("t" + i, BASE.minusDays(100))));
+        cache.invalidate(many);
+        Check.equal(0, cache.size());
+
+        cache.resetStats();
+        Check.equal(0L, cache.getHits());
+        Check.equal(0.0, cache.getHitRate());
+    }
+
+    private static void refusesStalePut() {
+        DayCache cache = new DayCache(4);
+        cache.put(BASE, emptyDay(), () -> false);
+        Check.equal(0, cache.size());
+        cache.put(BASE, emptyDay(), () -> true);
+        Check.equal(1, cache.size());
+        // Least recently used day goes first
+        for (int d = 1; d <= 4; d++) cache.put(BASE.plusDays(d), emptyDay(), () -> true);
+        Check.equal(4, cache.size());
+        Check.isTrue(cache.get(BASE) == null, "eldest day evicted");
+    }
+
+    private static void staysCurrent() {
+        MyCalendar calendar = new MyCalendar();
+        Random rnd = new Random(18);
+        List<Task> tasks = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        for (int step = 0; step < 600; step++) {
+            int op = rnd.nextInt(6);
+            if (op == 0 || tasks.isEmpty()) {
+                Task t = new Task("t" + step, BASE.plusDays(rnd.nextInt(30)));
+                calendar.addTask(t);
+                tasks.add(t);
+            } else if (op == 1) {
+                calendar.removeTask(tasks.remove(rnd.nextInt(tasks.size())));
+            } else if (op == 2) {
+                tasks.get(rnd.nextInt(tasks.size())).setdueDate(BASE.plusDays(rnd.nextInt(30)));
+            } else if (op == 3 || events.isEmpty()) {
+                LocalDate start = BASE.plusDays(rnd.nextInt(30));
+                Event e = new Event("e" + step, start, start.plusDays(rnd.nextInt(6)), "");
+                calendar.addEvent(e);
+                events.add(e);
+            } else if (op == 4) {
+                Event e = events.get(rnd.nextInt(events.size()));
+                e.setEndDate(e.getStartDate().plusDays(rnd.nextInt(6)));
+            } else {
+                calendar.removeEvent(events.remove(rnd.nextInt(events.size())));
+            }
+            // Read a few days (filling the cache) and compare with a direct count
+            for (int i = 0; i < 3; i++) {
+                LocalDate day = BASE.plusDays(rnd.nextInt(30));
+                List<Task> due = calendar.getTasksOn(day);
+                int expected = 0;
+                for (Task t : tasks) if (t.getDueDate().equals(day)) expected++;
+                Check.equal(expected, due.size());
+                for (Task t : due) Check.equal(day, t.getDueDate());
+                expected = 0;
+                for (Event e : events) if (!e.getStartDate().isAfter(day) && !e.getEndDate().isBefore(day)) expected++;
+                Check.equal(expected, calendar.getEventsOn(day).size());
+            }
+        }
+        Check.isTrue(calendar.getDayCache().getHits() > 0, "repeated days are served from the cache");
+        Check.throwsUnsupported(() -> calendar.getTasksOn(BASE).add(new Task("x", BASE)));
+    }
+
+    private static DayCache.Day emptyDay() {
+        return new DayCache.Day(List.of(), List.of());
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * EventConflictsTest.java
+ *
+ * Sweep-line and per-event conflict reports against comparing every pair.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+final class EventConflictsTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private EventConflictsTest() {
+    }
+
+    static void run() {
+        Check.test("EventConflicts.findAll matches every overlapping pair", EventConflictsTest::findAllMatchesPairs);
+        Check.test("EventConflicts.findWith matches the pairs of one event", EventConflictsTest::findWithMatchesPairs);
+    }
+
+    private static void findAllMatchesPairs() {
+        Random rnd = new Random(23);
+        for (int round = 0; round < 20; round++) {
+            MyCalendar calendar = new MyCalendar();
+            List<Event> events = randomEvents(rnd, 1 + rnd.nextInt(60));
+            calendar.addEvents(events);
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < events.size(); i++) {
+                for (int j = i + 1; j < events.size(); j++) {
+                    if (overlaps(events.get(i), events.get(j))) expected.add(pair(events.get(i), events.get(j)));
+                }
+            }
+            List<EventConflicts.Conflict> conflicts = calendar.getEventConflicts();
+            Check.equal(expected.size(), conflicts.size());
+            Check.equal(expected, pairs(conflicts));
+            Check.equal(expected, pairs(EventConflicts.findAll(events)));
+            EventKey previous = null;
+            for (EventConflicts.Conflict c : conflicts) {
+                checkConflict(c);
+                // Ordered by the later-starting event of each pair
+                EventKey key = EventKey.of(c.getSecond());
+                Check.isTrue(previous == null || previous.compareTo(key) <= 0, "ordered by second event");
+                previous = key;
+            }
+        }
+        Check.equal("No overlapping events.", EventConflicts.report(List.of()));
+    }
+
+    private static void findWithMatchesPairs() {
+        Random rnd = new Random(24);
+        MyCalendar calendar = new MyCalendar();
+        List<Event> events = randomEvents(rnd, 80);
+        calendar.addEvents(events);
+        // A candidate not yet in the calendar is checked against all of it
+        LocalDate start = BASE.plusDays(10);
+        events.add(new Event("candidate", start, start.plusDays(3), ""));
+        for (Event e : events) {
+            Set<String> expected = new HashSet<>();
+            for (Event other : events) {
+                if (other != e && calendar.getEventById(other.getId()) == other && overlaps(e, other)) {
+                    expected.add(pair(e, other));
+                }
+            }
+            List<EventConflicts.Conflict> conflicts = calendar.getConflictsWith(e);
+            Check.equal(expected, pairs(conflicts));
+            for (EventConflicts.Conflict c : conflicts) {
+                checkConflict(c);
+                Check.isTrue(c.getFirst() == e || c.getSecond() == e, "every conflict involves the event");
+            }
+        }
+    }
+
+    // First starts no later than second, and the overlap is exactly the shared days
+    private static void checkConflict(EventConflicts.Conflict c) {
+        Event a = c.getFirst();
+        Event b = c.getSecond();
+        Check.isTrue(EventKey.of(a).compareTo(EventKey.of(b)) < 0, "first event sorts first");
+        Check.equal(a.getStartDate().isAfter(b.getStartDate()) ? a.getStartDate() : b.getStartDate(), c.getOverlapStart());
+        Check.equal(a.getEndDate().isBefore(b.getEndDate()) ? a.getEndDate() : b.getEndDate(), c.getOverlapEnd());
+    }
+
+    private static List<Event> randomEvents(Random rnd, int count) {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate start = BASE.plusDays(rnd.nextInt(40));
+            events.add(new Event("e" + i, start, start.plusDays(rnd.nextInt(rnd.nextInt(4) == 0 ? 15 : 3)), ""));
+        }
+        return events;
+    }
+
+    private static boolean overlaps(Event a, Event b) {
+        return !a.getStartDate().isAfter(b.getEndDate()) && !b.getStartDate().isAfter(a.getEndDate());
+    }
+
+    // The pair as "lowId-highId", whichever order it was reported in
+    private static String pair(Event a, Event b) {
+        return Math.min(a.getId(), b.getId()) + "-" + Math.max(a.getId(), b.getId());
+    }
+
+    private static Set<String> pairs(List<EventConflicts.Conflict> conflicts) {
+        Set<String> result = new HashSet<>();
+        for (EventConflicts.Conflict c : conflicts) result.add(pair(c.getFirst(), c.getSecond()));
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * EventIntervalTreeTest.java
+ *
+ * EventIntervalTree queries against a brute-force scan of the same events.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+final class EventIntervalTreeTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private EventIntervalTreeTest() {
+    }
+
+    static void run() {
+        Check.test("EventIntervalTree overlap queries match a scan", EventIntervalTreeTest::overlapMatchesScan);
+        Check.test("EventIntervalTree remove uses the filed span and identity", EventIntervalTreeTest::removeUsesFiledSpan);
+    }
+
+    private static void overlapMatchesScan() {
+        Random rnd = new Random(2);
+        List<Event> events = new ArrayList<>();
+        EventIntervalTree tree = EventIntervalTree.empty();
+        for (int i = 0; i < 400; i++) {
+            LocalDate start = BASE.plusDays(rnd.nextInt(300));
+            Event e = new Event("e" + i, start, start.plusDays(rnd.nextInt(10)));
+            events.add(e);
+            tree = tree.add(e);
+        }
+        // Drop a quarter of them again
+        for (int i = 0; i < 100; i++) {
+            Event e = events.remove(rnd.nextInt(events.size()));
+            tree = tree.remove(e, e.getStartDate(), e.getEndDate());
+        }
+        List<Event> sorted = new ArrayList<>(events);
+        sorted.sort(Comparator.comparing(EventKey::of));
+        Check.equal(sorted.size(), tree.size());
+        Check.equal(sorted, new ArrayList<>(tree.asList()));
+        List<Event> walked = new ArrayList<>();
+        for (Event e : tree.asList()) walked.add(e);
+        Check.equal(sorted, walked);
+        Check.isTrue(!EventIntervalTree.empty().asList().iterator().hasNext(), "empty tree iterates nothing");
+        for (int i = 0; i < sorted.size(); i++) {
+            Check.equal(i, tree.indexOf(sorted.get(i)));
+        }
+        for (int q = 0; q < 200; q++) {
+            LocalDate from = BASE.plusDays(rnd.nextInt(320) - 10);
+            LocalDate to = from.plusDays(rnd.nextInt(15));
+            List<Event> expected = new ArrayList<>();
+            for (Event e : sorted) {
+                if (!e.getEndDate().isBefore(from) && !e.getStartDate().isAfter(to)) expected.add(e);
+            }
+            Check.equal(expected, tree.eventsOverlapping(from, to));
+            Check.equal(expected.size(), tree.countOverlapping(from, to));
+            List<Event> onDay = new ArrayList<>();
+            for (Event e : sorted) {
+                if (e.occursOn(from)) onDay.add(e);
+            }
+            Check.equal(onDay, tree.eventsOn(from));
+        }
+        EventKey cursor = EventKey.of(sorted.get(sorted.size() / 2));
+        List<Event> after = new ArrayList<>();
+        tree.forEachAfter(cursor, (k, e) -> after.add(e) && after.size() < 20);
+        Check.equal(sorted.subList(sorted.size() / 2 + 1, sorted.size() / 2 + 21), after);
+    }
+
+    private static void removeUsesFiledSpan() {
+        Event e = new Event("trip", BASE, BASE.plusDays(3));
+        EventIntervalTree tree = EventIntervalTree.empty().add(e);
+        Check.isTrue(tree.add(e) == tree, "adding twice is a no-op");
+        Check.isTrue(tree.remove(e, BASE, BASE.plusDays(1)) == tree, "wrong span finds nothing");
+        Check.isTrue(tree.remove(e, BASE, BASE.plusDays(3)).isEmpty(), "filed span removes the event");
+        // Same id and span, different object: not the filed event
+        Event copy = new Event(e.getId(), "trip", BASE, BASE.plusDays(3), "");
+        Check.isTrue(!tree.contains(copy), "a copy is not contained");
+        Check.isTrue(tree.remove(copy, BASE, BASE.plusDays(3)) == tree, "a copy removes nothing");
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * FreeDayFinderTest.java
+ *
+ * Free days and windows against checking every day of the range.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class FreeDayFinderTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private FreeDayFinderTest() {
+    }
+
+    static void run() {
+        Check.test("FreeDayFinder windows match a day-by-day scan", FreeDayFinderTest::windowsMatchScan);
+        Check.test("FreeDayFinder days match a day-by-day scan", FreeDayFinderTest::daysMatchScan);
+        Check.test("FreeDayFinder rejects bad arguments", FreeDayFinderTest::rejectsBadArguments);
+    }
+
+    private static void windowsMatchScan() {
+        Random rnd = new Random(24);
+        for (int round = 0; round < 30; round++) {
+            MyCalendar calendar = randomCalendar(rnd);
+            for (int q = 0; q < 10; q++) {
+                LocalDate from = BASE.plusDays(rnd.nextInt(70) - 5);
+                LocalDate until = from.plusDays(rnd.nextInt(40));
+                int length = 1 + rnd.nextInt(4);
+                int maxTasks = rnd.nextInt(3);
+                int limit = 1 + rnd.nextInt(6);
+                List<String> expected = new ArrayList<>();
+                for (LocalDate[] run : freeRuns(calendar, from, until, maxTasks)) {
+                    long days = run[1].toEpochDay() - run[0].toEpochDay() + 1;
+                    if (days >= length && expected.size() < limit) expected.add(run[0] + ".." + run[1]);
+                }
+                List<String> actual = new ArrayList<>();
+                for (FreeDayFinder.Window w : calendar.findFreeWindows(from, until, length, maxTasks, limit)) {
+                    Check.isTrue(w.getLength() >= length, "window is long enough");
+                    actual.add(w.getStart() + ".." + w.getEnd());
+                }
+                Check.equal(expected, actual);
+            }
+        }
+    }
+
+    private static void daysMatchScan() {
+        Random rnd = new Random(25);
+        for (int round = 0; round < 30; round++) {
+            MyCalendar calendar = randomCalendar(rnd);
+            LocalDate from = BASE.plusDays(rnd.nextInt(60));
+            LocalDate until = from.plusDays(rnd.nextInt(30));
+            int maxTasks = rnd.nextInt(3);
+            int count = 1 + rnd.nextInt(10);
+            List<LocalDate> expected = new ArrayList<>();
+            for (LocalDate d = from; !d.isAfter(until) && expected.size() < count; d = d.plusDays(1)) {
+                if (isFree(calendar, d, maxTasks)) expected.add(d);
+            }
+            Check.equal(expected, calendar.findFreeDays(from, until, maxTasks, count));
+        }
+    }
+
+    private static void rejectsBadArguments() {
+        MyCalendar calendar = new MyCalendar();
+        Check.throwsIllegalArgument(() -> calendar.findFreeWindows(BASE, BASE.minusDays(1), 1, 0, 1));
+        Check.throwsIllegalArgument(() -> calendar.findFreeWindows(BASE, BASE, 0, 0, 1));
+        Check.throwsIllegalArgument(() -> calendar.findFreeWindows(BASE, BASE, 1, -1, 1));
+        Check.equal(List.of(), calendar.findFreeWindows(BASE, BASE, 1, 0, 0));
+        // An empty calendar is one window clipped to the range
+        List<FreeDayFinder.Window> all = calendar.findFreeWindows(BASE, BASE.plusDays(9), 1, 0, 5);
+        Check.equal(1, all.size());
+        Check.equal(10, all.get(0).getLength());
+    }
+
+    // Maximal runs of free days inside [from, until], as {start, end}
+    private static List<LocalDate[]> freeRuns(MyCalendar calendar, LocalDate from, LocalDate until, int maxTasks) {
+        List<LocalDate[]> runs = new ArrayList<>();
+        LocalDate start = null;
+        for (LocalDate d = from; !d.isAfter(until); d = d.plusDays(1)) {
+            if (isFree(calendar, d, maxTasks)) {
+                if (start == null) start = d;
+            } else if (start != null) {
+                runs.add(new LocalDate[] {start, d.minusDays(1)});
+                start = null;
+            }
+        }
+        if (start != null) runs.add(new LocalDate[] {start, until});
+        return runs;
+    }
+
+    private static boolean isFree(MyCalendar calendar, LocalDate day, int maxTasks) {
+        int due = 0;
+        for (Task t : calendar.getTasksList()) if (t.getDueDate().equals(day)) due++;
+        if (due > maxTasks) return false;
+        for (Event e : calendar.getEventsList()) {
+            if (!e.getStartDate().isAfter(day) && !e.getEndDate().isBefore(day)) return false;
+        }
+        return true;
+    }
+
+    private static MyCalendar randomCalendar(Random rnd) {
+        MyCalendar calendar = new MyCalendar();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0, n = rnd.nextInt(60); i < n; i++) tasks.add(new Task("t" + i, BASE.plusDays(rnd.nextInt(90))));
+        List<Event> events = new ArrayList<>();
+        for (int i = 0, n = rnd.nextInt(12); i < n; i++) {
+            LocalDate start = BASE.plusDays(rnd.nextInt(90) - 10);
+            events.add(new Event("e" + i, start, start.plusDays(rnd.nextInt(rnd.nextInt(3) == 0 ? 20 : 3)), ""));
+        }
+        calendar.addTasks(tasks);
+        calendar.addEvents(events);
+        return calendar;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * KeysetPageTest.java
+ *
+ * Keyset paging over tasks and events: full coverage, and what an empty page hands back.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class KeysetPageTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private KeysetPageTest() {
+    }
+
+    static void run() {
+        Check.test("KeysetPage pages cover the sorted lists exactly once", KeysetPageTest::pagesCoverLists);
+        Check.test("KeysetPage keeps the cursor when a page comes back empty", KeysetPageTest::emptyPageKeepsCursor);
+    }
+
+    private static void pagesCoverLists() {
+        Random rnd = new Random(10);
+        MyCalendar calendar = new MyCalendar();
+        List<Task> tasks = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 200; i++) tasks.add(new Task("t" + i, BASE.plusDays(rnd.nextInt(30))));
+        for (int i = 0; i < 80; i++) {
+            LocalDate start = BASE.plusDays(rnd.nextInt(30));
+            events.add(new Event("e" + i, start, start.plusDays(rnd.nextInt(3)), ""));
+        }
+        calendar.addTasks(tasks);
+        calendar.addEvents(events);
+        List<Task> pagedTasks = new ArrayList<>();
+        TaskKey taskCursor = null;
+        for (boolean more = true; more; ) {
+            KeysetPage<Task, TaskKey> page = calendar.tasksAfter(taskCursor, 7);
+            pagedTasks.addAll(page.getItems());
+            taskCursor = page.getNextCursor();
+            more = page.hasMore();
+        }
+        Check.equal(calendar.getTasksList(), pagedTasks);
+        List<Event> pagedEvents = new ArrayList<>();
+        EventKey eventCursor = null;
+        for (boolean more = true; more; ) {
+            KeysetPage<Event, EventKey> page = calendar.eventsAfter(eventCursor, 9);
+            pagedEvents.addAll(page.getItems());
+            eventCursor = page.getNextCursor();
+            more = page.hasMore();
+        }
+        Check.equal(calendar.getEventsList(), pagedEvents);
+    }
+
+    private static void emptyPageKeepsCursor() {
+        MyCalendar calendar = new MyCalendar();
+        KeysetPage<Task, TaskKey> none = calendar.tasksAfter(null, 5);
+        Check.equal(List.of(), none.getItems());
+        Check.equal(null, none.getNextCursor());
+        Task a = new Task("a", BASE);
+        Task b = new Task("b", BASE.plusDays(1));
+        calendar.addTask(a);
+        calendar.addTask(b);
+        KeysetPage<Task, TaskKey> first = calendar.tasksAfter(null, 5);
+        TaskKey cursor = first.getNextCursor();
+        Check.isTrue(!first.hasMore(), "both tasks fit on one page");
+        // Nothing after the last task: the same cursor comes back, not a restart from null
+        KeysetPage<Task, TaskKey> empty = calendar.tasksAfter(cursor, 5);
+        Check.equal(List.of(), empty.getItems());
+        Check.equal(cursor, empty.getNextCursor());
+        Check.equal(cursor, calendar.tasksAfter(cursor, 0).getNextCursor());
+        // A task added later is picked up from that cursor
+        Task c = new Task("c", BASE.plusDays(2));
+        calendar.addTask(c);
+        Check.equal(List.of(c), calendar.tasksAfter(empty.getNextCursor(), 5).getItems());
+        Check.throwsIllegalArgument(() -> calendar.tasksAfter(null, -1));
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * LongMapTest.java
+ *
+ * LongMap against a HashMap, including removals that shift probe chains.
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+final class LongMapTest {
+    private LongMapTest() {
+    }
+
+    static void run() {
+        Check.test("LongMap matches HashMap", LongMapTest::matchesHashMap);
+        Check.test("LongMap rejects null values", LongMapTest::rejectsNull);
+    }
+
+    private static void matchesHashMap() {
+        Random rnd = new Random(3);
+        Map<Long, String> expected = new HashMap<>();
+        LongMap<String> map = new LongMap<>();
+        for (int op = 0; op < 20000; op++) {
+            // Multiples of 1024 collide in the low bits if hashing is poor
+            long k = rnd.nextInt(2000) * 1024L - 500_000L;
+            if (rnd.nextInt(3) == 0) {
+                Check.equal(expected.remove(k), map.remove(k));
+            } else {
+                String v = "v" + op;
+                Check.equal(expected.put(k, v), map.put(k, v));
+            }
+            if (op % 1000 == 0) {
+                for (long probe = -500_000L; probe < 2000 * 1024L - 500_000L; probe += 1024L) {
+                    Check.equal(expected.get(probe), map.get(probe));
+                    Check.equal(expected.containsKey(probe), map.containsKey(probe));
+                }
+            }
+        }
+        Check.equal(expected.size(), map.size());
+        List<String> values = map.values();
+        List<String> expectedValues = new ArrayList<>(expected.values());
+        Collections.sort(values);
+        Collections.sort(expectedValues);
+        Check.equal(expectedValues, values);
+        map.clear();
+        Check.isTrue(map.isEmpty() && map.get(-500_000L) == null, "clear empties the map");
+    }
+
+    private static void rejectsNull() {
+        LongMap<String> map = new LongMap<>();
+        try {
+            map.put(1L, null);
+            throw new AssertionError("null value was accepted");
+        } catch (NullPointerException expected) {
+            Check.isTrue(map.isEmpty(), "nothing was stored");
+        }
+    }
+}
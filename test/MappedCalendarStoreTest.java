@@ -0,0 +1,151 @@
+/**
+ * MappedCalendarStoreTest.java
+ *
+ * Mapped file round trip, and detached copies that must not replace live tasks.
+ */
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class MappedCalendarStoreTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private MappedCalendarStoreTest() {
+    }
+
+    static void run() {
+        Check.test("MappedCalendarStore answers queries like the snapshot", MappedCalendarStoreTest::matchesSnapshot);
+        Check.test("MyCalendar refuses detached copies of live tasks and events", MappedCalendarStoreTest::refusesCopies);
+        Check.test("MyCalendar queries an opened store in place", MappedCalendarStoreTest::queriesOpenedStore);
+    }
+
+    private static void matchesSnapshot() throws Exception {
+        MyCalendar calendar = sampleCalendar(new Random(8));
+        File file = File.createTempFile("calendar", ".bin");
+        try {
+            MappedCalendarStore.write(file.getPath(), calendar.snapshot());
+            MappedCalendarStore store = MappedCalendarStore.open(file.getPath());
+            Check.equal(calendar.getTaskCount(), store.getTaskCount());
+            Check.equal(calendar.getEventsList().size(), store.getEventCount());
+            for (int d = -2; d < 70; d += 3) {
+                LocalDate day = BASE.plusDays(d);
+                Check.equal(ids(calendar.getTasksOn(day)), ids(store.getTasksOn(day)));
+                Check.equal(calendar.countTasksOn(day), store.countTasksOn(day));
+                Check.equal(eventIds(calendar.getEventsBetween(day, day.plusDays(4))), eventIds(store.getEventsBetween(day, day.plusDays(4))));
+            }
+            Task first = calendar.getTasksList().get(0);
+            Task copy = store.getTask(0);
+            Check.equal(first.getId(), copy.getId());
+            Check.equal(first.getTaskName(), copy.getTaskName());
+            Check.equal(first.getDueDate(), copy.getDueDate());
+            Check.equal(first.getPriority(), copy.getPriority());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void refusesCopies() throws Exception {
+        MyCalendar calendar = sampleCalendar(new Random(9));
+        File file = File.createTempFile("calendar", ".bin");
+        try {
+            MappedCalendarStore.write(file.getPath(), calendar.snapshot());
+            MappedCalendarStore store = MappedCalendarStore.open(file.getPath());
+            Task original = calendar.getTasksList().get(0);
+            Task copy = store.getTask(0);
+            int count = calendar.getTaskCount();
+            Check.throwsIllegalArgument(() -> calendar.addTask(copy));
+            Check.throwsIllegalArgument(() -> calendar.addTasks(List.of(copy)));
+            Check.equal(count, calendar.getTaskCount());
+            Check.isTrue(calendar.getTaskById(original.getId()) == original, "original task is still indexed");
+            Event event = calendar.getEventsList().get(0);
+            Check.throwsIllegalArgument(() -> calendar.addEvent(store.getEvent(0)));
+            Check.throwsIllegalArgument(() -> calendar.addEvents(List.of(store.getEvent(0))));
+            Check.isTrue(calendar.getEventById(event.getId()) == event, "original event is still indexed");
+            // Removing through a copy must not unfile the original
+            int events = calendar.getEventsList().size();
+            calendar.removeEvent(store.getEvent(0));
+            calendar.removeTask(copy);
+            Check.equal(events, calendar.getEventsList().size());
+            Check.equal(count, calendar.getTaskCount());
+            Check.isTrue(calendar.getEventById(event.getId()) == event, "original event survives removal of its copy");
+            Check.isTrue(calendar.getEventsList().contains(event), "original event is still listed");
+            event.setEventName("renamed original");
+            Check.equal(List.of(event), calendar.getEventsNamed("renamed original"));
+            // Into a different calendar the copy is just a task
+            MyCalendar other = new MyCalendar();
+            other.addTask(copy);
+            Check.equal(1, other.getTaskCount());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void queriesOpenedStore() throws Exception {
+        MyCalendar archived = sampleCalendar(new Random(10));
+        File file = File.createTempFile("calendar", ".bin");
+        try {
+            archived.saveMappedFile(file.getPath());
+            MyCalendar calendar = new MyCalendar();
+            calendar.addTask(new Task("live", BASE));
+            Check.equal(0, calendar.countMappedTasksOn(BASE));
+            Check.equal(List.of(), calendar.getMappedEventsOn(BASE));
+            calendar.openMappedFile(file.getPath());
+            // The archive is queried, not loaded: live tasks and events are untouched
+            Check.equal(1, calendar.getTaskCount());
+            Check.equal(0, calendar.getEventsList().size());
+            for (int d = -2; d < 70; d += 3) {
+                LocalDate day = BASE.plusDays(d);
+                Check.equal(ids(archived.getTasksOn(day)), ids(calendar.getMappedTasksOn(day)));
+                Check.equal(archived.countTasksOn(day), calendar.countMappedTasksOn(day));
+                Check.equal(ids(dueBetween(archived.getTasksList(), day, day.plusDays(6))), ids(calendar.getMappedTasksBetween(day, day.plusDays(6))));
+                Check.equal(eventIds(archived.getEventsOn(day)), eventIds(calendar.getMappedEventsOn(day)));
+                Check.equal(eventIds(archived.getEventsBetween(day, day.plusDays(4))), eventIds(calendar.getMappedEventsBetween(day, day.plusDays(4))));
+            }
+            calendar.closeMappedFile();
+            Check.isTrue(calendar.getMappedStore() == null, "store detached");
+            Check.equal(List.of(), calendar.getMappedTasksOn(BASE));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static MyCalendar sampleCalendar(Random rnd) {
+        MyCalendar calendar = new MyCalendar();
+        List<Task> tasks = new ArrayList<>();
+        List<Event> events = new ArrayList<>();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        for (int i = 0; i < 300; i++) {
+            tasks.add(new Task("task " + i, BASE.plusDays(rnd.nextInt(60)), priorities[rnd.nextInt(priorities.length)], "d" + i % 7));
+        }
+        for (int i = 0; i < 60; i++) {
+            LocalDate start = BASE.plusDays(rnd.nextInt(60));
+            events.add(new Event("event " + i, start, start.plusDays(rnd.nextInt(5)), ""));
+        }
+        calendar.addTasks(tasks);
+        calendar.addEvents(events);
+        return calendar;
+    }
+
+    // Tasks (already in calendar order) due in [from, to]
+    private static List<Task> dueBetween(List<Task> tasks, LocalDate from, LocalDate to) {
+        List<Task> result = new ArrayList<>();
+        for (Task t : tasks) {
+            if (!t.getDueDate().isBefore(from) && !t.getDueDate().isAfter(to)) result.add(t);
+        }
+        return result;
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        List<Long> ids = new ArrayList<>();
+        for (Task t : tasks) ids.add(t.getId());
+        return ids;
+    }
+
+    private static List<Long> eventIds(List<Event> events) {
+        List<Long> ids = new ArrayList<>();
+        for (Event e : events) ids.add(e.getId());
+        return ids;
+    }
+}
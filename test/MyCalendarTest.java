@@ -0,0 +1,260 @@
+/**
+ * MyCalendarTest.java
+ *
+ * Expiry, bulk add/remove/edit, concurrent access and parallel rescheduling on the
+ * calendar model.
+ */
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+final class MyCalendarTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private MyCalendarTest() {
+    }
+
+    static void run() {
+        Check.test("MyCalendar expires only on a sweep, never on a read", MyCalendarTest::expiresOnlyOnSweep);
+        Check.test("MyCalendar bulk add and remove match one-at-a-time results", MyCalendarTest::bulkAddRemove);
+        Check.test("MyCalendar batch edits re-key every edited task", MyCalendarTest::editsRekey);
+        Check.test("MyCalendar readers see consistent snapshots while writers run", MyCalendarTest::concurrentReadersAndWriters);
+        Check.test("MyCalendar reschedules in parallel and keeps the order", MyCalendarTest::reschedulesInParallel);
+        Check.test("MyCalendar batch edits skip tasks no longer in the calendar", MyCalendarTest::editsSkipRemovedTasks);
+    }
+
+    private static void expiresOnlyOnSweep() {
+        MyCalendar calendar = new MyCalendar(new CalendarClock(CalendarClockTest.lateEvening(BASE)));
+        Random rnd = new Random(4);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 400; i++) tasks.add(new Task("t" + i, BASE.plusDays(rnd.nextInt(41) - 20)));
+        calendar.addTasks(tasks);
+        List<Task> current = new ArrayList<>();
+        for (Task t : tasks) if (!t.getDueDate().isBefore(BASE)) current.add(t);
+        // Reads see overdue tasks until a sweep runs
+        Check.equal(tasks.size(), calendar.getTasksList().size());
+        Check.equal(countDue(tasks, BASE.minusDays(3)), calendar.getTasksOn(BASE.minusDays(3)).size());
+        Check.equal(tasks.size(), calendar.getTaskCount());
+        Check.equal(tasks.size() - current.size(), calendar.removeExpiredTasks());
+        Check.equal(current.size(), calendar.getTaskCount());
+        for (Task t : current) Check.isTrue(calendar.getTaskById(t.getId()) == t, "task due today or later is kept");
+        for (int d = -20; d < 0; d++) Check.equal(0, calendar.getTasksOn(BASE.plusDays(d)).size());
+        assertOrdered(calendar);
+        Check.equal(0, calendar.removeExpiredTasks());
+        Check.equal(0, calendar.rollOverIfNeeded());
+    }
+
+    private static int countDue(List<Task> tasks, LocalDate day) {
+        int count = 0;
+        for (Task t : tasks) if (t.getDueDate().equals(day)) count++;
+        return count;
+    }
+
+    private static void bulkAddRemove() {
+        MyCalendar calendar = new MyCalendar();
+        Random rnd = new Random(9);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) tasks.add(new Task("t" + i % 17, BASE.plusDays(rnd.nextInt(30))));
+        List<Task> withRepeats = new ArrayList<>(tasks);
+        withRepeats.addAll(tasks.subList(0, 50));
+        Check.equal(300, calendar.addTasks(withRepeats));
+        Check.equal(0, calendar.addTasks(tasks));
+        assertOrdered(calendar);
+        Check.equal(countNamed(tasks, "t3"), calendar.getTasksNamed("t3").size());
+
+        List<Task> live = new ArrayList<>(tasks);
+        int removed = calendar.removeTasksIf(t -> t.getDueDate().getDayOfMonth() % 3 == 0);
+        Check.equal(countRemoved(live, t -> t.getDueDate().getDayOfMonth() % 3 == 0), removed);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < live.size(); i += 4) ids.add(live.get(i).getId());
+        ids.add(-1L);
+        Check.equal(ids.size() - 1, calendar.removeTasksById(ids));
+        live.removeIf(t -> ids.contains(t.getId()));
+        Check.equal(live.size(), calendar.getTaskCount());
+        for (int d = 0; d < 30; d++) Check.equal(countDue(live, BASE.plusDays(d)), calendar.getTasksOn(BASE.plusDays(d)).size());
+        for (Task t : live) Check.isTrue(calendar.getTaskById(t.getId()) == t, "kept task is still indexed");
+        Check.equal(countNamed(live, "t3"), calendar.getTasksNamed("t3").size());
+        assertOrdered(calendar);
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            LocalDate start = BASE.plusDays(rnd.nextInt(30));
+            events.add(new Event("e" + i, start, start.plusDays(rnd.nextInt(4)), ""));
+        }
+        Check.equal(80, calendar.addEvents(events));
+        Check.equal(0, calendar.addEvents(events));
+        int removedEvents = calendar.removeEventsIf(e -> e.getEndDate().isAfter(e.getStartDate()));
+        events.removeIf(e -> e.getEndDate().isAfter(e.getStartDate()));
+        Check.equal(80 - events.size(), removedEvents);
+        for (int d = 0; d < 34; d++) {
+            LocalDate day = BASE.plusDays(d);
+            int expected = 0;
+            for (Event e : events) if (e.getStartDate().equals(day)) expected++;
+            Check.equal(expected, calendar.getEventsOn(day).size());
+        }
+    }
+
+    private static void editsRekey() {
+        MyCalendar calendar = new MyCalendar();
+        Random rnd = new Random(20);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) tasks.add(new Task("t" + i, BASE.plusDays(rnd.nextInt(20))));
+        calendar.addTasks(tasks);
+        List<Task> picked = new ArrayList<>();
+        for (Task t : tasks) if (rnd.nextInt(3) == 0) picked.add(t);
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        Check.equal(picked.size(), calendar.editTasks(picked, t -> {
+            t.setdueDate(BASE.plusDays(rnd.nextInt(20)));
+            t.setPriority(priorities[rnd.nextInt(priorities.length)]);
+            t.setTaskName("edited " + t.getTaskName());
+        }));
+        assertOrdered(calendar);
+        for (int d = 0; d < 20; d++) {
+            LocalDate day = BASE.plusDays(d);
+            List<Task> due = calendar.getTasksOn(day);
+            Check.equal(countDue(tasks, day), due.size());
+            for (Task t : due) Check.equal(day, t.getDueDate());
+        }
+        for (Task t : picked) {
+            Check.equal(List.of(t), calendar.getTasksNamed(t.getTaskName()));
+            Check.isTrue(calendar.snapshot().indexOfTask(t) >= 0, "edited task is filed under its new key");
+            Check.equal(0, calendar.getTasksNamed(t.getTaskName().substring("edited ".length())).size());
+        }
+        // An edit that throws part way still re-keys what it already changed
+        Task first = tasks.get(0);
+        try {
+            calendar.editTasks(List.of(first, tasks.get(1)), t -> {
+                if (t != first) throw new IllegalStateException();
+                t.setdueDate(BASE.plusDays(25));
+            });
+        } catch (IllegalStateException e) {
+            // The second task's edit fails on purpose
+        }
+        Check.equal(List.of(first), calendar.getTasksOn(BASE.plusDays(25)));
+        assertOrdered(calendar);
+    }
+
+    private static void concurrentReadersAndWriters() throws InterruptedException {
+        MyCalendar calendar = new MyCalendar();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            int seed = w;
+            threads.add(new Thread(() -> {
+                Random rnd = new Random(seed);
+                List<Task> mine = new ArrayList<>();
+                for (int i = 0; i < 2000; i++) {
+                    if (mine.isEmpty() || rnd.nextInt(3) > 0) {
+                        Task t = new Task("w" + seed + " " + i, BASE.plusDays(rnd.nextInt(15)));
+                        calendar.addTask(t);
+                        mine.add(t);
+                    } else if (rnd.nextBoolean()) {
+                        calendar.removeTask(mine.remove(rnd.nextInt(mine.size())));
+                    } else {
+                        mine.get(rnd.nextInt(mine.size())).setdueDate(BASE.plusDays(rnd.nextInt(15)));
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < 3; r++) {
+            int seed = 10 + r;
+            threads.add(new Thread(() -> {
+                Random rnd = new Random(seed);
+                for (int i = 0; i < 300; i++) {
+                    // Every read comes from one published snapshot, so it is never half-applied
+                    CalendarSnapshot s = calendar.snapshot();
+                    PersistentSortedMap<TaskKey, Task> map = s.taskMap();
+                    if (map.size() != s.getTaskCount()) throw new AssertionError("count differs from map");
+                    // Keys, not live due dates: a writer may already have moved a task
+                    for (int j = 1; j < map.size(); j++) {
+                        if (map.keyAt(j - 1).compareTo(map.keyAt(j)) >= 0) throw new AssertionError("snapshot out of order");
+                    }
+                    LocalDate day = BASE.plusDays(rnd.nextInt(15));
+                    if (s.getTasksOn(day).size() != s.countTasksOn(day)) throw new AssertionError("day view and count differ");
+                    for (Task t : calendar.getTasksOn(day)) {
+                        if (t == null) throw new AssertionError("null in cached day");
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.setUncaughtExceptionHandler((thread, e) -> failure.compareAndSet(null, e));
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+        Check.isTrue(failure.get() == null, "no reader or writer failed: " + failure.get());
+        assertOrdered(calendar);
+        for (Task t : calendar.getTasksList()) Check.isTrue(calendar.getTaskById(t.getId()) == t, "every task is indexed");
+    }
+
+    private static int countNamed(List<Task> tasks, String name) {
+        int count = 0;
+        for (Task t : tasks) if (t.getTaskName().equals(name)) count++;
+        return count;
+    }
+
+    // Remove matching tasks from the list and say how many there were
+    private static int countRemoved(List<Task> tasks, Predicate<Task> filter) {
+        int before = tasks.size();
+        tasks.removeIf(filter);
+        return before - tasks.size();
+    }
+
+    private static void reschedulesInParallel() {
+        MyCalendar calendar = new MyCalendar();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) tasks.add(new Task("t" + i, BASE.plusDays(i % 40)));
+        calendar.addTasks(tasks);
+        // Push every task due on an even day a week later
+        int moved = calendar.rescheduleTasksParallel(t -> t.getDueDate().getDayOfMonth() % 2 == 0,
+                t -> t.getDueDate().plusDays(7));
+        int expected = 0;
+        for (int i = 0; i < 500; i++) {
+            LocalDate original = BASE.plusDays(i % 40);
+            boolean even = original.getDayOfMonth() % 2 == 0;
+            if (even) expected++;
+            Check.equal(even ? original.plusDays(7) : original, tasks.get(i).getDueDate());
+        }
+        Check.equal(expected, moved);
+        assertOrdered(calendar);
+        for (int d = 0; d < 50; d++) {
+            LocalDate day = BASE.plusDays(d);
+            int count = 0;
+            for (Task t : tasks) if (t.getDueDate().equals(day)) count++;
+            Check.equal(count, calendar.getTasksOn(day).size());
+        }
+        // Null and unchanged dates move nothing
+        Check.equal(0, calendar.rescheduleTasksParallel(t -> true, t -> null));
+        Check.equal(0, calendar.rescheduleTasksParallel(t -> true, Task::getDueDate));
+    }
+
+    private static void editsSkipRemovedTasks() {
+        MyCalendar first = new MyCalendar();
+        MyCalendar second = new MyCalendar();
+        Task stays = new Task("stays", BASE);
+        Task moves = new Task("moves", BASE);
+        first.addTask(stays);
+        first.addTask(moves);
+        List<Task> planned = first.getTasksList();
+        first.removeTask(moves);
+        second.addTask(moves);
+        Check.equal(1, first.editTasks(planned, t -> t.setdueDate(BASE.plusDays(3))));
+        Check.equal(BASE.plusDays(3), stays.getDueDate());
+        Check.equal(BASE, moves.getDueDate());
+        Check.equal(List.of(moves), second.getTasksOn(BASE));
+        // A task listed twice is edited each time, even after the first edit moved it
+        Check.equal(1, first.editTasks(List.of(stays, stays), t -> t.setdueDate(t.getDueDate().plusDays(1))));
+        Check.equal(BASE.plusDays(5), stays.getDueDate());
+        Check.equal(List.of(stays), first.getTasksOn(BASE.plusDays(5)));
+    }
+
+    static void assertOrdered(MyCalendar calendar) {
+        List<Task> list = calendar.getTasksList();
+        for (int i = 1; i < list.size(); i++) {
+            Check.isTrue(TaskKey.of(list.get(i - 1)).compareTo(TaskKey.of(list.get(i))) < 0, "tasks stay in key order");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * NameTrieTest.java
+ *
+ * Prefix completion order (usage count, then recency) and removal.
+ */
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+final class NameTrieTest {
+    private NameTrieTest() {
+    }
+
+    static void run() {
+        Check.test("NameTrie completes by count, then recency", NameTrieTest::completesByCountThenRecency);
+        Check.test("NameTrie matches a brute-force ranking", NameTrieTest::matchesBruteForce);
+    }
+
+    private static void completesByCountThenRecency() {
+        NameTrie trie = new NameTrie();
+        trie.add("Homework");
+        trie.add("Home repair");
+        trie.add("Homework");
+        trie.add("Hockey");
+        Check.equal(List.of("Homework", "Home repair"), trie.complete("hom", 10));
+        Check.equal(List.of("Homework", "Hockey", "Home repair"), trie.complete("h", 10));
+        Check.equal(List.of("Homework"), trie.complete("HOMEW", 10));
+        Check.equal(List.of(), trie.complete("x", 10));
+        trie.remove("Homework");
+        trie.remove("Homework");
+        Check.equal(List.of("Home repair"), trie.complete("hom", 10));
+        Check.equal(2, trie.size());
+    }
+
+    private static void matchesBruteForce() {
+        Random rnd = new Random(5);
+        NameTrie trie = new NameTrie();
+        Map<String, int[]> counts = new HashMap<>();
+        Map<String, Long> stamps = new HashMap<>();
+        long clock = 0;
+        for (int op = 0; op < 3000; op++) {
+            StringBuilder sb = new StringBuilder();
+            int len = 1 + rnd.nextInt(5);
+            for (int i = 0; i < len; i++) sb.append((char) ('a' + rnd.nextInt(3)));
+            String name = sb.toString();
+            int[] c = counts.computeIfAbsent(name, k -> new int[1]);
+            if (rnd.nextInt(4) == 0) {
+                if (c[0] > 0) c[0]--;
+                trie.remove(name);
+            } else {
+                c[0]++;
+                stamps.put(name, ++clock);
+                trie.add(name);
+            }
+        }
+        for (String prefix : new String[] {"", "a", "ab", "bca", "cc", "abcab"}) {
+            List<String> expected = new ArrayList<>();
+            for (Map.Entry<String, int[]> e : counts.entrySet()) {
+                if (e.getValue()[0] > 0 && e.getKey().startsWith(prefix.toLowerCase(Locale.ROOT))) expected.add(e.getKey());
+            }
+            expected.sort(Comparator.<String>comparingInt(n -> -counts.get(n)[0]).thenComparingLong(n -> -stamps.get(n)));
+            Check.equal(expected.subList(0, Math.min(NameTrie.TOP, expected.size())), trie.complete(prefix, NameTrie.TOP));
+        }
+    }
+}
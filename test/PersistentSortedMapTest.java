@@ -0,0 +1,91 @@
+/**
+ * PersistentSortedMapTest.java
+ *
+ * PersistentSortedMap against a TreeMap under random puts and removes.
+ */
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+final class PersistentSortedMapTest {
+    private PersistentSortedMapTest() {
+    }
+
+    static void run() {
+        Check.test("PersistentSortedMap matches TreeMap", PersistentSortedMapTest::matchesTreeMap);
+        Check.test("PersistentSortedMap old versions stay unchanged", PersistentSortedMapTest::oldVersionsUnchanged);
+        Check.test("PersistentSortedMap ofSorted rejects unsorted keys", PersistentSortedMapTest::ofSortedRejectsUnsorted);
+        Check.test("PersistentSortedMap parallel spliterator keeps order", PersistentSortedMapTest::spliteratorKeepsOrder);
+    }
+
+    private static void matchesTreeMap() {
+        Random rnd = new Random(1);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        PersistentSortedMap<Integer, String> map = PersistentSortedMap.empty();
+        for (int op = 0; op < 5000; op++) {
+            int k = rnd.nextInt(500);
+            if (rnd.nextInt(3) == 0) {
+                expected.remove(k);
+                map = map.remove(k);
+            } else {
+                expected.put(k, "v" + k + "-" + op);
+                map = map.put(k, "v" + k + "-" + op);
+            }
+        }
+        Check.equal(expected.size(), map.size());
+        Check.equal(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+        for (int k = -1; k <= 501; k++) {
+            Check.equal(expected.get(k), map.get(k));
+            Check.equal(expected.headMap(k).size(), map.rank(k));
+        }
+        int i = 0;
+        for (Map.Entry<Integer, String> e : expected.entrySet()) {
+            Check.equal(e.getKey(), map.keyAt(i));
+            Check.equal(e.getValue(), map.getAt(i));
+            i++;
+        }
+        for (int from = 0; from < 500; from += 37) {
+            int to = from + rnd.nextInt(120);
+            List<String> range = new ArrayList<>(expected.subMap(from, to).values());
+            Check.equal(range.size(), map.countInRange(from, to));
+            Check.equal(range, new ArrayList<>(map.valuesInRange(from, to)));
+            List<String> visited = new ArrayList<>();
+            map.forEachInRange(from, to, visited::add);
+            Check.equal(range, visited);
+            List<String> iterated = new ArrayList<>();
+            for (Iterator<String> it = map.iterator(from, to); it.hasNext(); ) iterated.add(it.next());
+            Check.equal(range, iterated);
+            List<String> after = new ArrayList<>();
+            map.forEachAfter(from, (k, v) -> after.add(v) && after.size() < 5);
+            List<String> expectedAfter = expected.tailMap(from, false).values().stream().limit(5).collect(Collectors.toList());
+            Check.equal(expectedAfter, after);
+        }
+    }
+
+    private static void oldVersionsUnchanged() {
+        PersistentSortedMap<Integer, String> v1 = PersistentSortedMap.<Integer, String>empty().put(1, "a").put(2, "b");
+        PersistentSortedMap<Integer, String> v2 = v1.put(3, "c").remove(1);
+        Check.equal(List.of("a", "b"), new ArrayList<>(v1.values()));
+        Check.equal(List.of("b", "c"), new ArrayList<>(v2.values()));
+        Check.isTrue(v1.remove(42) == v1, "removing a missing key returns the same map");
+    }
+
+    private static void ofSortedRejectsUnsorted() {
+        Check.throwsIllegalArgument(() -> PersistentSortedMap.ofSorted(List.of(2, 1), List.of("b", "a")));
+        PersistentSortedMap<Integer, String> map = PersistentSortedMap.ofSorted(List.of(1, 2, 3), List.of("a", "b", "c"));
+        Check.equal(List.of("a", "b", "c"), new ArrayList<>(map.values()));
+    }
+
+    private static void spliteratorKeepsOrder() {
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) keys.add(i * 2);
+        PersistentSortedMap<Integer, Integer> map = PersistentSortedMap.ofSorted(keys, keys);
+        List<Integer> collected = StreamSupport.stream(map.spliterator(), true).collect(Collectors.toList());
+        Check.equal(keys, collected);
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * TaskDependenciesTest.java
+ *
+ * Cycle rejection, topological order under random edits, and the critical path.
+ */
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+final class TaskDependenciesTest {
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 1);
+
+    private TaskDependenciesTest() {
+    }
+
+    static void run() {
+        Check.test("TaskDependencies keeps a topological order and rejects cycles", TaskDependenciesTest::keepsOrder);
+        Check.test("TaskDependencies critical path on a small graph", TaskDependenciesTest::criticalPath);
+        Check.test("TaskDependencies critical path is stable under concurrent readers", TaskDependenciesTest::concurrentCriticalPath);
+    }
+
+    private static void keepsOrder() {
+        Random rnd = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 120; i++) tasks.add(new Task("t" + i, TODAY.plusDays(rnd.nextInt(60))));
+        TaskDependencies graph = new TaskDependencies();
+        Map<Task, Set<Task>> edges = new HashMap<>();
+        for (int op = 0; op < 2000; op++) {
+            Task a = tasks.get(rnd.nextInt(tasks.size()));
+            Task b = tasks.get(rnd.nextInt(tasks.size()));
+            if (a == b) continue;
+            if (rnd.nextInt(5) == 0) {
+                boolean existed = edges.getOrDefault(a, Collections.emptySet()).contains(b);
+                Check.equal(existed, graph.remove(a, b));
+                if (existed) edges.get(a).remove(b);
+            } else if (reaches(edges, b, a)) {
+                Check.throwsIllegalArgument(() -> graph.add(a, b));
+            } else {
+                boolean added = edges.computeIfAbsent(a, k -> new HashSet<>()).add(b);
+                Check.equal(added, graph.add(a, b));
+            }
+            List<Task> order = graph.getTopologicalOrder();
+            Map<Task, Integer> position = new IdentityHashMap<>();
+            for (int i = 0; i < order.size(); i++) position.put(order.get(i), i);
+            for (Map.Entry<Task, Set<Task>> e : edges.entrySet()) {
+                for (Task blocked : e.getValue()) {
+                    Check.isTrue(position.get(e.getKey()) < position.get(blocked), "blocker listed before blocked task");
+                }
+            }
+        }
+        int count = 0;
+        for (Set<Task> s : edges.values()) count += s.size();
+        Check.equal(count, graph.getDependencyCount());
+        Check.throwsIllegalArgument(() -> graph.add(tasks.get(0), tasks.get(0)));
+    }
+
+    // a -> b -> c must fit in three days; d -> c has more room
+    private static void criticalPath() {
+        Task a = new Task("a", TODAY.plusDays(9));
+        Task b = new Task("b", TODAY.plusDays(2));
+        Task c = new Task("c", TODAY.plusDays(3));
+        Task d = new Task("d", TODAY.plusDays(19));
+        TaskDependencies graph = new TaskDependencies();
+        graph.add(a, b);
+        graph.add(b, c);
+        graph.add(d, c);
+        TaskDependencies.CriticalPath path = graph.getCriticalPath(TODAY);
+        Check.equal(List.of(a, b, c), path.getTasks());
+        Check.equal(1L, path.getSlackDays());
+        // Finishing a takes it off the path; b can now start today
+        a.markCompleted();
+        path = graph.getCriticalPath(TODAY);
+        Check.equal(List.of(b, c), path.getTasks());
+        Check.equal(2L, path.getSlackDays());
+        // A late day makes the slack negative
+        path = graph.getCriticalPath(TODAY.plusDays(4));
+        Check.equal(-2L, path.getSlackDays());
+        Check.equal(List.of(), new TaskDependencies().getCriticalPath(TODAY).getTasks());
+    }
+
+    private static void concurrentCriticalPath() throws Exception {
+        List<Task> chain = new ArrayList<>();
+        TaskDependencies graph = new TaskDependencies();
+        for (int i = 0; i < 2000; i++) {
+            chain.add(new Task("c" + i, TODAY.plusDays(3000 + i)));
+            if (i > 0) graph.add(chain.get(i - 1), chain.get(i));
+        }
+        List<Task> expected = graph.getCriticalPath(TODAY).getTasks();
+        Check.equal(chain, expected);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int r = 0; r < 20; r++) {
+                    if (!expected.equals(graph.getCriticalPath(TODAY).getTasks())) {
+                        errors.add(new AssertionError("critical path changed under concurrent reads"));
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        Check.equal(List.of(), errors);
+    }
+
+    private static boolean reaches(Map<Task, Set<Task>> edges, Task from, Task to) {
+        Deque<Task> stack = new ArrayDeque<>();
+        Set<Task> seen = new HashSet<>();
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            Task t = stack.pop();
+            if (t == to) return true;
+            if (seen.add(t)) stack.addAll(edges.getOrDefault(t, Collections.emptySet()));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * TextIndexTest.java
+ *
+ * Word search: every query word must match, ranking, and stable paging.
+ */
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+final class TextIndexTest {
+    private TextIndexTest() {
+    }
+
+    static void run() {
+        Check.test("TextIndex requires every query word", TextIndexTest::requiresEveryWord);
+        Check.test("TextIndex ranks name matches above description matches", TextIndexTest::ranksNameFirst);
+        Check.test("TextIndex pages cover the full result exactly once", TextIndexTest::pagesCoverResult);
+        Check.test("TextIndex forgets removed and re-indexed text", TextIndexTest::forgetsOldText);
+        Check.test("TextIndex accepts very large offsets and limits", TextIndexTest::largeLimits);
+    }
+
+    private static void requiresEveryWord() {
+        TextIndex<String> index = new TextIndex<>();
+        index.put(1, "a", "Buy milk", "and bread");
+        index.put(2, "b", "Buy bread", "");
+        index.put(3, "c", "Call mom", "about milk");
+        Check.equal(Set.of("a", "c"), new HashSet<>(index.search("MILK", 0, 10).getItems()));
+        Check.equal(List.of("a"), index.search("milk bread", 0, 10).getItems());
+        Check.equal(0, index.count("milk cheese"));
+        Check.equal(0, index.count("  "));
+        Check.throwsIllegalArgument(() -> index.search("milk", -1, 10));
+    }
+
+    private static void ranksNameFirst() {
+        TextIndex<String> index = new TextIndex<>();
+        index.put(1, "description", "Errands", "milk");
+        index.put(2, "name", "Milk", "errands");
+        Check.equal(List.of("name", "description"), index.search("milk", 0, 10).getItems());
+    }
+
+    private static void pagesCoverResult() {
+        Random rnd = new Random(6);
+        TextIndex<Integer> index = new TextIndex<>();
+        for (int i = 0; i < 300; i++) {
+            index.put(i, i, "task " + (rnd.nextBoolean() ? "milk" : "eggs"), rnd.nextBoolean() ? "milk milk" : "");
+        }
+        TextIndex.Page<Integer> all = index.search("milk", 0, 1000);
+        List<Integer> paged = new ArrayList<>();
+        for (int offset = 0; ; offset += 7) {
+            TextIndex.Page<Integer> page = index.search("milk", offset, 7);
+            Check.equal(all.getTotal(), page.getTotal());
+            paged.addAll(page.getItems());
+            if (!page.hasMore()) break;
+        }
+        Check.equal(all.getItems(), paged);
+        Check.equal(all.getTotal(), paged.size());
+    }
+
+    private static void forgetsOldText() {
+        TextIndex<String> index = new TextIndex<>();
+        index.put(1, "a", "Dentist", "");
+        index.put(1, "a", "Doctor", "");
+        Check.equal(0, index.count("dentist"));
+        Check.equal(1, index.count("doctor"));
+        index.remove(1);
+        Check.equal(0, index.count("doctor"));
+        Check.equal(0, index.size());
+    }
+
+    private static void largeLimits() {
+        TextIndex<String> index = new TextIndex<>();
+        index.put(1, "a", "Buy milk", "");
+        index.put(2, "b", "Milk run", "");
+        Check.equal(2, index.search("milk", 0, Integer.MAX_VALUE).getItems().size());
+        Check.equal(List.of(), index.search("milk", 5, Integer.MAX_VALUE).getItems());
+        Check.equal(List.of(), index.search("milk", Integer.MAX_VALUE, Integer.MAX_VALUE).getItems());
+        Check.equal(1, index.search("milk", 1, Integer.MAX_VALUE).getItems().size());
+        Check.throwsIllegalArgument(() -> index.search("milk", 0, -1));
+    }
+}
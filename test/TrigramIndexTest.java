@@ -0,0 +1,72 @@
+/**
+ * TrigramIndexTest.java
+ *
+ * Typo-tolerant lookup against a brute-force edit-distance scan.
+ */
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+final class TrigramIndexTest {
+    private TrigramIndexTest() {
+    }
+
+    static void run() {
+        Check.test("TrigramIndex finds names and words within the typo allowance", TrigramIndexTest::findsTypos);
+        Check.test("TrigramIndex matches a brute-force scan", TrigramIndexTest::matchesScan);
+        Check.test("TrigramIndex forgets removed items", TrigramIndexTest::forgetsRemoved);
+    }
+
+    private static void findsTypos() {
+        TrigramIndex<String> index = new TrigramIndex<>();
+        index.put(1, "Dentist", "Dentist");
+        index.put(2, "Dentist appointment", "Dentist appointment");
+        index.put(3, "Groceries", "Groceries");
+        Check.equal(List.of("Dentist", "Dentist appointment"), index.search("dentist", 1, 10));
+        Check.equal(List.of("Dentist", "Dentist appointment"), index.search("dentsit", 2, 10));
+        Check.equal(List.of("Groceries"), index.search("grocerys", 2, 10));
+        Check.equal(List.of(), index.search("xyz", 1, 10));
+        Check.equal(List.of("Dentist"), index.search("dentist", 1, 1));
+    }
+
+    private static void matchesScan() {
+        Random rnd = new Random(4);
+        TrigramIndex<String> index = new TrigramIndex<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String name = word(rnd) + (rnd.nextBoolean() ? " " + word(rnd) : "");
+            names.add(name);
+            index.put(i, name, name);
+        }
+        for (int q = 0; q < 100; q++) {
+            String query = word(rnd);
+            Set<String> expected = new HashSet<>();
+            for (String name : names) {
+                int best = TrigramIndex.boundedLevenshtein(query, name, 1);
+                for (String w : name.split(" ")) {
+                    best = Math.min(best, TrigramIndex.boundedLevenshtein(query, w, 1));
+                }
+                if (best <= 1) expected.add(name);
+            }
+            Check.equal(expected, new HashSet<>(index.search(query, 1, 1000)));
+        }
+    }
+
+    private static void forgetsRemoved() {
+        TrigramIndex<String> index = new TrigramIndex<>();
+        index.put(1, "Laundry", "Laundry");
+        index.remove(1);
+        Check.equal(0, index.size());
+        Check.equal(List.of(), index.search("laundry", 1, 10));
+    }
+
+    // Short words over a small alphabet, so near-misses are common
+    private static String word(Random rnd) {
+        StringBuilder sb = new StringBuilder();
+        int len = 4 + rnd.nextInt(4);
+        for (int i = 0; i < len; i++) sb.append((char) ('a' + rnd.nextInt(5)));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * ValuePoolTest.java
+ *
+ * Shared instances, and savings counted only when a duplicate is actually dropped.
+ */
+import java.time.LocalDate;
+
+final class ValuePoolTest {
+    private ValuePoolTest() {
+    }
+
+    static void run() {
+        Check.test("ValuePool shares equal dates and strings", ValuePoolTest::sharesValues);
+        Check.test("ValuePool does not count epoch-day lookups as savings", ValuePoolTest::lookupsSaveNothing);
+    }
+
+    private static void sharesValues() {
+        LocalDate first = ValuePool.date(LocalDate.of(2041, 6, 1));
+        long hits = ValuePool.getDateHits();
+        long saved = ValuePool.getSavedBytes();
+        LocalDate copy = LocalDate.of(2041, 6, 1);
+        Check.isTrue(ValuePool.date(copy) == first, "equal date shares one instance");
+        Check.equal(hits + 1, ValuePool.getDateHits());
+        Check.isTrue(ValuePool.getSavedBytes() > saved, "a dropped duplicate counts as saved");
+        Check.isTrue(ValuePool.date(first) == first, "the shared instance maps to itself");
+        Check.equal(hits + 1, ValuePool.getDateHits());
+        String name = ValuePool.name("pool test " + 1);
+        Check.isTrue(ValuePool.name("pool test " + 1) == name, "equal names share one instance");
+        Check.equal(null, ValuePool.description(null));
+        LocalDate outside = LocalDate.of(1999, 12, 31);
+        Check.isTrue(ValuePool.date(outside) == outside, "dates outside the table are returned unchanged");
+    }
+
+    private static void lookupsSaveNothing() {
+        LocalDate day = LocalDate.of(2042, 7, 15);
+        LocalDate shared = ValuePool.date(day);
+        long hits = ValuePool.getDateHits();
+        long saved = ValuePool.getSavedBytes();
+        for (int i = 0; i < 1000; i++) {
+            Check.isTrue(ValuePool.dateOfEpochDay(day.toEpochDay()) == shared, "lookup returns the shared date");
+        }
+        Check.equal(LocalDate.of(2043, 1, 2), ValuePool.dateOfEpochDay(LocalDate.of(2043, 1, 2).toEpochDay()));
+        Check.equal(hits, ValuePool.getDateHits());
+        Check.equal(saved, ValuePool.getSavedBytes());
+    }
+}